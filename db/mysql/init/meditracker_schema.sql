@@ -25,7 +25,8 @@ CREATE TABLE patients (
                           phone_number  VARCHAR(20),
                           rfid_uid      VARCHAR(64) NOT NULL UNIQUE,
                           created_at    DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                          updated_at    DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+                          version       BIGINT NOT NULL DEFAULT 0,
+                          updated_at    DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
 ) ENGINE=InnoDB;
 CREATE INDEX idx_patients_rfid ON patients (rfid_uid);
 
@@ -38,7 +39,8 @@ CREATE TABLE doctors (
                          floor             VARCHAR(10),
                          consultation_fee  DECIMAL(12,2) NOT NULL DEFAULT 300.00,
                          created_at        DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                         updated_at        DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                         version           BIGINT NOT NULL DEFAULT 0,
+                         updated_at        DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
                          CONSTRAINT chk_doctor_department
                              CHECK (department IN ('CARDIOLOGY','GENERAL_MEDICINE','NEUROLOGY','ORTHOPEDICS','PEDIATRICS','DERMATOLOGY'))
 ) ENGINE=InnoDB;
@@ -48,7 +50,8 @@ CREATE INDEX idx_doctors_department ON doctors (department);
 CREATE TABLE wallets (
                          id          BIGINT PRIMARY KEY AUTO_INCREMENT,
                          patient_id  BIGINT NOT NULL UNIQUE,
-                         balance     DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+                         balance     DECIMAL(14,2) NOT NULL DEFAULT 0.00, -- snapshot through snapshot_seq
+                         snapshot_seq BIGINT NOT NULL DEFAULT 0,
                          active      BOOLEAN NOT NULL DEFAULT TRUE,
                          created_at  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
                          updated_at  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
@@ -71,7 +74,8 @@ CREATE TABLE visits (
                         diagnosis            VARCHAR(1024),
                         medications          VARCHAR(1024),
                         created_at           DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                        updated_at           DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                        version              BIGINT NOT NULL DEFAULT 0,
+                        updated_at           DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
                         CONSTRAINT fk_visit_patient FOREIGN KEY (patient_id) REFERENCES patients(id),
                         CONSTRAINT fk_visit_doctor  FOREIGN KEY (doctor_id)  REFERENCES doctors(id),
                         CONSTRAINT chk_visit_department
@@ -81,7 +85,9 @@ CREATE TABLE visits (
 ) ENGINE=InnoDB;
 CREATE INDEX idx_visits_patient ON visits (patient_id);
 CREATE INDEX idx_visits_doctor  ON visits (doctor_id);
-CREATE INDEX idx_visits_status  ON visits (status);
+-- Active-visit dashboard: status IN (...) [AND department = ?] ORDER BY created_at
+CREATE INDEX idx_visits_status_dept_created ON visits (status, department, created_at);
+CREATE INDEX idx_visits_status_id ON visits (status, id);
 
 -- Lab tests
 CREATE TABLE lab_tests (
@@ -92,8 +98,11 @@ CREATE TABLE lab_tests (
                            price        DECIMAL(12,2) NOT NULL DEFAULT 0.00,
                            result_text  VARCHAR(2048),
                            completed_at DATETIME NULL,
+                           urgent       BOOLEAN NOT NULL DEFAULT FALSE,
+                           claimed_by   VARCHAR(80),
                            created_at   DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                           updated_at   DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                           version      BIGINT NOT NULL DEFAULT 0,
+                           updated_at   DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
                            CONSTRAINT fk_labtest_visit FOREIGN KEY (visit_id) REFERENCES visits(id) ON DELETE CASCADE,
                            CONSTRAINT chk_labtest_status CHECK (status IN ('ORDERED','IN_PROGRESS','COMPLETED'))
 ) ENGINE=InnoDB;
@@ -110,7 +119,8 @@ CREATE TABLE billing (
                          status           VARCHAR(20) NOT NULL DEFAULT 'PENDING',
                          paid_at          DATETIME NULL,
                          created_at       DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                         updated_at       DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                         version          BIGINT NOT NULL DEFAULT 0,
+                         updated_at       DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
                          CONSTRAINT fk_billing_visit FOREIGN KEY (visit_id) REFERENCES visits(id) ON DELETE CASCADE,
                          CONSTRAINT chk_billing_type   CHECK (type IN ('CONSULTATION','LAB_TEST')),
                          CONSTRAINT chk_billing_status CHECK (status IN ('PENDING','PAID'))
@@ -118,22 +128,43 @@ CREATE TABLE billing (
 CREATE INDEX idx_billing_visit  ON billing (visit_id);
 CREATE INDEX idx_billing_status ON billing (status);
 
--- Wallet transactions (audit)
+-- Wallet transactions (append-only ledger; seq numbers each wallet's rows from 1)
 CREATE TABLE wallet_transactions (
                                      id          BIGINT PRIMARY KEY AUTO_INCREMENT,
                                      wallet_id   BIGINT NOT NULL,
+                                     seq         BIGINT NOT NULL,
                                      billing_id  BIGINT NULL,
                                      txn_type    VARCHAR(10) NOT NULL, -- 'DEBIT' or 'CREDIT'
                                      amount      DECIMAL(12,2) NOT NULL,
                                      description VARCHAR(255),
                                      created_at  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                     CONSTRAINT uk_wtxn_wallet_seq UNIQUE (wallet_id, seq),
                                      CONSTRAINT fk_wtxn_wallet  FOREIGN KEY (wallet_id)  REFERENCES wallets(id)  ON DELETE CASCADE,
                                      CONSTRAINT fk_wtxn_billing FOREIGN KEY (billing_id) REFERENCES billing(id)   ON DELETE SET NULL,
                                      CONSTRAINT chk_wtxn_type CHECK (txn_type IN ('DEBIT','CREDIT'))
 ) ENGINE=InnoDB;
-CREATE INDEX idx_wtxn_wallet  ON wallet_transactions (wallet_id);
 CREATE INDEX idx_wtxn_billing ON wallet_transactions (billing_id);
 
+-- Responses replayed for retried writes (Idempotency-Key); id is SHA-256 of key, method and path
+CREATE TABLE idempotency_keys (
+                                  id           VARCHAR(64) PRIMARY KEY,
+                                  request_hash CHAR(64),
+                                  status_code  INT NOT NULL,
+                                  content_type VARCHAR(100),
+                                  body         MEDIUMBLOB,
+                                  created_at   DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB;
+CREATE INDEX idx_idem_created ON idempotency_keys (created_at);
+
+CREATE TABLE visit_summaries (
+                                 visit_id     BIGINT PRIMARY KEY,
+                                 patient_id   BIGINT NOT NULL,
+                                 summary_json MEDIUMTEXT NOT NULL,
+                                 created_at   DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                 CONSTRAINT fk_visit_summaries_visit FOREIGN KEY (visit_id) REFERENCES visits(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+CREATE INDEX idx_visit_summaries_patient ON visit_summaries (patient_id);
+
 -- Summary view
 CREATE VIEW v_billing_summary_per_visit AS
 SELECT
@@ -177,4 +208,23 @@ CREATE INDEX idx_users_role ON users (role);
 
 -- Seed one doctor
 INSERT INTO doctors (full_name, department, room_number, floor, consultation_fee)
-VALUES ('Dr. Sahil ER.','CARDIOLOGY','205','2',300.00);
\ No newline at end of file
+VALUES ('Dr. Sahil ER.','CARDIOLOGY','205','2',300.00);
+
+-- Id sequences used by the perf profile (orm-perf.xml). MySQL has no sequences, so Hibernate
+-- emulates each one with a single-row table. Starting at MAX(id) + 50 keeps the first pooled
+-- block clear of rows inserted through AUTO_INCREMENT; PerfSequenceReseeder repeats this at
+-- every perf startup for rows written since.
+CREATE TABLE patients_seq            (next_val BIGINT NOT NULL) ENGINE=InnoDB;
+CREATE TABLE doctors_seq             (next_val BIGINT NOT NULL) ENGINE=InnoDB;
+CREATE TABLE wallets_seq             (next_val BIGINT NOT NULL) ENGINE=InnoDB;
+CREATE TABLE visits_seq              (next_val BIGINT NOT NULL) ENGINE=InnoDB;
+CREATE TABLE lab_tests_seq           (next_val BIGINT NOT NULL) ENGINE=InnoDB;
+CREATE TABLE billing_seq             (next_val BIGINT NOT NULL) ENGINE=InnoDB;
+CREATE TABLE wallet_transactions_seq (next_val BIGINT NOT NULL) ENGINE=InnoDB;
+INSERT INTO patients_seq            SELECT COALESCE(MAX(id), 0) + 50 FROM patients;
+INSERT INTO doctors_seq             SELECT COALESCE(MAX(id), 0) + 50 FROM doctors;
+INSERT INTO wallets_seq             SELECT COALESCE(MAX(id), 0) + 50 FROM wallets;
+INSERT INTO visits_seq              SELECT COALESCE(MAX(id), 0) + 50 FROM visits;
+INSERT INTO lab_tests_seq           SELECT COALESCE(MAX(id), 0) + 50 FROM lab_tests;
+INSERT INTO billing_seq             SELECT COALESCE(MAX(id), 0) + 50 FROM billing;
+INSERT INTO wallet_transactions_seq SELECT COALESCE(MAX(id), 0) + 50 FROM wallet_transactions;
@@ -0,0 +1,118 @@
+package com.meditracker.benchmark;
+
+import com.meditracker.MeditrackerApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Application context on a fresh in-memory H2 database, seeded with {@code visits} visits
+ * spread over one patient per {@value #VISITS_PER_PATIENT} visits. Every visit carries a
+ * paid consultation bill and a completed lab test. Rows are generated inside H2 with
+ * SYSTEM_RANGE, so even the 1M data set seeds in seconds.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDataSet {
+
+    static final int VISITS_PER_PATIENT = 10;
+
+    @Param({"1000", "100000", "1000000"})
+    public int visits;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private SimpleJdbcInsert billingInsert;
+    private int patients;
+    private long firstVisitId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(MeditrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.root=WARN",
+                        // application.yml sets this logger itself, so the root level does not cover it
+                        "--logging.level.org.hibernate.SQL=WARN");
+        jdbc = context.getBean(JdbcTemplate.class);
+        billingInsert = new SimpleJdbcInsert(jdbc).withTableName("billing").usingGeneratedKeyColumns("id");
+        seed();
+    }
+
+    private void seed() {
+        patients = Math.max(1, visits / VISITS_PER_PATIENT);
+        long doctorId = jdbc.queryForObject("select min(id) from doctors", Long.class);
+
+        jdbc.update("insert into patients (full_name, rfid_uid, created_at, updated_at) " +
+                "select 'Bench Patient ' || \"X\", 'BENCH-' || \"X\", now(), now() from system_range(1, ?)", patients);
+        long firstPatientId = jdbc.queryForObject("select min(id) from patients", Long.class);
+        jdbc.update("insert into wallets (patient_id, balance, active, created_at, updated_at) " +
+                "select id, 100000000.00, true, now(), now() from patients");
+        // Every tenth visit is still open so the active-visit indexes see realistic selectivity
+        jdbc.update("insert into visits (patient_id, doctor_id, department, status, created_at, updated_at) " +
+                "select ? + mod(\"X\" - 1, ?), ?, 'CARDIOLOGY', " +
+                "case when mod(\"X\", 10) = 0 then 'REGISTERED' else 'COMPLETED' end, now(), now() " +
+                "from system_range(1, ?)", firstPatientId, patients, doctorId, visits);
+        firstVisitId = jdbc.queryForObject("select min(id) from visits", Long.class);
+        jdbc.update("insert into billing (visit_id, type, item_description, amount, status, paid_at, created_at, updated_at) " +
+                "select id, 'CONSULTATION', 'Consultation - Bench', 300.00, 'PAID', now(), now(), now() from visits");
+        jdbc.update("insert into lab_tests (visit_id, test_name, status, price, result_text, completed_at, created_at, updated_at) " +
+                "select id, 'CBC', 'COMPLETED', 150.00, 'Normal', now(), now(), now() from visits");
+        jdbc.execute("analyze");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /** Patient {@code n} (1-based) owns visits {@code n, n + patients, n + 2 * patients, ...}. */
+    public int randomPatient() {
+        return ThreadLocalRandom.current().nextInt(patients) + 1;
+    }
+
+    public String rfidOf(int patient) {
+        return "BENCH-" + patient;
+    }
+
+    public long randomVisitOf(int patient) {
+        int perPatient = Math.max(1, visits / patients);
+        return firstVisitId + (patient - 1) + (long) ThreadLocalRandom.current().nextInt(perPatient) * patients;
+    }
+
+    public long randomVisit() {
+        return firstVisitId + ThreadLocalRandom.current().nextInt(visits);
+    }
+
+    public long insertPendingBill(long visitId) {
+        LocalDateTime now = LocalDateTime.now();
+        return billingInsert.executeAndReturnKey(Map.of(
+                "visit_id", visitId,
+                "type", "LAB_TEST",
+                "item_description", "Lab Test - Bench",
+                "amount", new BigDecimal("25.00"),
+                "status", "PENDING",
+                // SimpleJdbcInsert sends NULL for every column it is not given
+                "version", 0L,
+                "created_at", now,
+                "updated_at", now)).longValue();
+    }
+}
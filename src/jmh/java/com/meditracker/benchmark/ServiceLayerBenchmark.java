@@ -0,0 +1,87 @@
+package com.meditracker.benchmark;
+
+import com.meditracker.controller.dto.VisitSummaryDTO;
+import com.meditracker.domain.LabTest;
+import com.meditracker.domain.Patient;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.service.BillingService;
+import com.meditracker.service.LabService;
+import com.meditracker.service.RegistrationService;
+import com.meditracker.service.VisitService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service-layer hot paths against {@link BenchmarkDataSet}. Each benchmark and data-set size
+ * runs in its own fork with a freshly seeded database. Run through the {@code jmh} Maven
+ * profile, which writes {@code target/jmh-result.json}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServiceLayerBenchmark {
+
+    private static final AtomicLong NEW_PATIENTS = new AtomicLong();
+
+    @Benchmark
+    public Patient registerOrFetch(BenchmarkDataSet data) {
+        String rfid = "JMH-NEW-" + NEW_PATIENTS.incrementAndGet();
+        return data.bean(RegistrationService.class).registerOrFetch(rfid, "JMH " + rfid, null, null);
+    }
+
+    @Benchmark
+    public Visit startVisit(BenchmarkDataSet data) {
+        return data.bean(VisitService.class).startVisit(data.rfidOf(data.randomPatient()), Department.CARDIOLOGY);
+    }
+
+    @Benchmark
+    public void payWithRfid(BenchmarkDataSet data, PendingBill bill) {
+        data.bean(BillingService.class).payWithRfid(bill.rfid, bill.billingId);
+    }
+
+    @Benchmark
+    public VisitSummaryDTO visitSummary(BenchmarkDataSet data) {
+        return data.bean(VisitService.class).getVisitSummary(data.randomVisit());
+    }
+
+    @Benchmark
+    public List<VisitSummaryDTO> patientVisitHistory(BenchmarkDataSet data) {
+        return data.bean(VisitService.class).getPatientVisitHistory(data.rfidOf(data.randomPatient()));
+    }
+
+    @Benchmark
+    public LabTest orderTest(BenchmarkDataSet data) {
+        return data.bean(LabService.class).orderTest(data.randomVisit(), "CBC", new BigDecimal("150.00"));
+    }
+
+    /** A fresh pending bill on one of the paying patient's visits, created outside the measurement. */
+    @State(Scope.Thread)
+    public static class PendingBill {
+        String rfid;
+        long billingId;
+
+        @Setup(Level.Invocation)
+        public void create(BenchmarkDataSet data) {
+            int patient = data.randomPatient();
+            rfid = data.rfidOf(patient);
+            billingId = data.insertPendingBill(data.randomVisitOf(patient));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.meditracker.benchmark;
+
+import com.meditracker.controller.dto.VisitSummaryDTO;
+import com.meditracker.domain.Billing;
+import com.meditracker.domain.Money;
+import com.meditracker.domain.enums.BillingStatus;
+import com.meditracker.domain.enums.BillingType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of the billing totals of a summary, no database involved.
+ * {@code billingTotalsBigDecimal} is the former arithmetic (BigDecimal amounts, three stream
+ * reductions); {@code billingTotalsMinorUnits} is the single pass over paise that
+ * {@link com.meditracker.service.VisitSummaryAssembler} now folds its rows with. Run with
+ * the GC profiler and compare {@code gc.alloc.rate.norm} (bytes/op):
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="-prof gc SummaryAllocationBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SummaryAllocationBenchmark {
+
+    @Param({"3", "30"})
+    public int bills;
+
+    private List<Billing> billings;
+    // The same bills as the entities held them before amounts became Money
+    private List<LegacyBill> legacyBills;
+
+    @Setup(Level.Trial)
+    public void build() {
+        billings = new ArrayList<>();
+        legacyBills = new ArrayList<>();
+        for (int i = 0; i < bills; i++) {
+            BigDecimal amount = new BigDecimal("149.50").add(BigDecimal.valueOf(i));
+            BillingStatus status = i % 3 == 0 ? BillingStatus.PENDING : BillingStatus.PAID;
+            Billing bill = new Billing();
+            bill.setId((long) i);
+            bill.setType(BillingType.LAB_TEST);
+            bill.setItemDescription("Lab Test - " + i);
+            bill.setAmount(Money.of(amount));
+            bill.setStatus(status);
+            billings.add(bill);
+            legacyBills.add(new LegacyBill(amount, status));
+        }
+    }
+
+    @Benchmark
+    public VisitSummaryDTO.BillingSummary billingTotalsBigDecimal() {
+        VisitSummaryDTO.BillingSummary summary = new VisitSummaryDTO.BillingSummary();
+        summary.setTotalAmount(legacyBills.stream()
+                .map(LegacyBill::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        summary.setTotalPaid(legacyBills.stream()
+                .filter(b -> b.status() == BillingStatus.PAID)
+                .map(LegacyBill::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        summary.setTotalDue(legacyBills.stream()
+                .filter(b -> b.status() == BillingStatus.PENDING)
+                .map(LegacyBill::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        summary.setFullyPaid(summary.getTotalDue().compareTo(BigDecimal.ZERO) == 0);
+        return summary;
+    }
+
+    @Benchmark
+    public VisitSummaryDTO.BillingSummary billingTotalsMinorUnits() {
+        VisitSummaryDTO.BillingSummary summary = new VisitSummaryDTO.BillingSummary();
+        long total = 0;
+        long paid = 0;
+        long due = 0;
+        for (Billing b : billings) {
+            long amount = b.getAmount().minor();
+            total += amount;
+            if (b.getStatus() == BillingStatus.PAID) {
+                paid += amount;
+            } else if (b.getStatus() == BillingStatus.PENDING) {
+                due += amount;
+            }
+        }
+        summary.setTotalAmount(BigDecimal.valueOf(total, 2));
+        summary.setTotalPaid(BigDecimal.valueOf(paid, 2));
+        summary.setTotalDue(BigDecimal.valueOf(due, 2));
+        summary.setFullyPaid(due == 0);
+        return summary;
+    }
+
+    private record LegacyBill(BigDecimal amount, BillingStatus status) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.meditracker.assignment;
+
+import com.meditracker.cache.DoctorDirectory;
+import com.meditracker.domain.Doctor;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.VisitStatus;
+import com.meditracker.queue.VisitChangedEvent;
+import com.meditracker.repository.VisitRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Assigns each new visit to the least-loaded doctor of its department. A doctor's load is the
+ * sum of the weights of their active visits, so patients waiting for a consultation count
+ * more than patients who are in the lab or at billing. Doctors are kept per department in a
+ * set ordered by load, so an assignment is O(log n).
+ * <p>
+ * Rebuilt from the database at startup. An assignment counts immediately, so concurrent
+ * starts spread out, and is undone if the starting transaction rolls back; status changes
+ * are applied once they commit, and completed visits drop out.
+ */
+@Component
+public class DoctorAssignmentEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorAssignmentEngine.class);
+
+    private static final Map<VisitStatus, Integer> WEIGHTS = new EnumMap<>(Map.of(
+            VisitStatus.REGISTERED, 3,
+            VisitStatus.VITALS, 3,
+            VisitStatus.CONSULTATION, 2,
+            VisitStatus.LAB_PENDING, 1,
+            VisitStatus.LAB_IN_PROGRESS, 1,
+            // Results need the doctor's review
+            VisitStatus.LAB_COMPLETED, 2,
+            VisitStatus.BILLING_PENDING, 0,
+            VisitStatus.COMPLETED, 0));
+
+    private static final Comparator<DoctorLoad> LEAST_LOADED =
+            Comparator.comparingInt((DoctorLoad d) -> d.load).thenComparing(d -> d.doctorId);
+
+    private final DoctorDirectory doctorDirectory;
+    private final VisitRepository visitRepository;
+
+    // Guarded by this
+    private final Map<Department, TreeSet<DoctorLoad>> departments = new EnumMap<>(Department.class);
+    private final Map<Long, DoctorLoad> doctors = new HashMap<>();
+    private final Map<Long, TrackedVisit> visits = new HashMap<>();
+
+    public DoctorAssignmentEngine(DoctorDirectory doctorDirectory, VisitRepository visitRepository) {
+        this.doctorDirectory = doctorDirectory;
+        this.visitRepository = visitRepository;
+        for (Department department : Department.values()) {
+            departments.put(department, new TreeSet<>(LEAST_LOADED));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Doctor> allDoctors = doctorDirectory.snapshot().all();
+        List<VisitLoad> active = visitRepository.findActiveVisitLoads(VisitStatus.active());
+        synchronized (this) {
+            departments.values().forEach(TreeSet::clear);
+            doctors.clear();
+            visits.clear();
+            allDoctors.forEach(this::addDoctor);
+            for (VisitLoad visit : active) {
+                visits.put(visit.visitId(), new TrackedVisit(visit.doctorId(), visit.status()));
+                adjust(visit.doctorId(), weight(visit.status()));
+            }
+        }
+        log.info("Doctor assignment loaded {} doctors with {} active visits", allDoctors.size(), active.size());
+    }
+
+    /**
+     * Picks the least-loaded doctor of the department and counts a new visit against them.
+     * Call {@link #assigned} with the saved visit in the same transaction.
+     *
+     * @return the doctor id, or null when the department has no doctors
+     */
+    public Long assign(Department department) {
+        Long doctorId;
+        synchronized (this) {
+            TreeSet<DoctorLoad> candidates = departments.get(department);
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            doctorId = candidates.first().doctorId;
+            adjust(doctorId, weight(VisitStatus.REGISTERED));
+        }
+        onRollback(() -> adjust(doctorId, -weight(VisitStatus.REGISTERED)));
+        return doctorId;
+    }
+
+    /** Starts tracking the visit an {@link #assign} was made for. */
+    public void assigned(Long visitId, Long doctorId) {
+        synchronized (this) {
+            visits.put(visitId, new TrackedVisit(doctorId, VisitStatus.REGISTERED));
+        }
+        onRollback(() -> {
+            synchronized (this) {
+                visits.remove(visitId);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisitChanged(VisitChangedEvent event) {
+        Long visitId = event.visit().getVisitId();
+        VisitStatus status = event.visit().getStatus();
+        synchronized (this) {
+            TrackedVisit tracked = visits.get(visitId);
+            if (tracked == null || tracked.status == status) {
+                return;
+            }
+            adjust(tracked.doctorId, weight(status) - weight(tracked.status));
+            if (status == VisitStatus.COMPLETED) {
+                visits.remove(visitId);
+            } else {
+                visits.put(visitId, new TrackedVisit(tracked.doctorId, status));
+            }
+        }
+    }
+
+    /** Adds a new doctor or moves an existing one to their current department. */
+    public synchronized void doctorSaved(Doctor doctor) {
+        DoctorLoad existing = doctors.get(doctor.getId());
+        if (existing == null) {
+            addDoctor(doctor);
+        } else if (existing.department != doctor.getDepartment()) {
+            departments.get(existing.department).remove(existing);
+            DoctorLoad moved = new DoctorLoad(existing.doctorId, doctor.getDepartment(), existing.load);
+            doctors.put(moved.doctorId, moved);
+            departments.get(moved.department).add(moved);
+        }
+    }
+
+    public synchronized void doctorRemoved(Long doctorId) {
+        DoctorLoad removed = doctors.remove(doctorId);
+        if (removed != null) {
+            departments.get(removed.department).remove(removed);
+        }
+    }
+
+    /** Current load per doctor of the department, least loaded first. */
+    public synchronized List<DoctorLoadView> loads(Department department) {
+        List<DoctorLoadView> loads = new ArrayList<>();
+        departments.get(department).forEach(d -> loads.add(new DoctorLoadView(d.doctorId, d.load)));
+        return loads;
+    }
+
+    private void addDoctor(Doctor doctor) {
+        DoctorLoad load = new DoctorLoad(doctor.getId(), doctor.getDepartment(), 0);
+        doctors.put(load.doctorId, load);
+        departments.get(load.department).add(load);
+    }
+
+    // Re-inserts the doctor so the ordered set sees the new load
+    private synchronized void adjust(Long doctorId, int delta) {
+        DoctorLoad doctor = doctors.get(doctorId);
+        if (doctor == null || delta == 0) {
+            return;
+        }
+        TreeSet<DoctorLoad> department = departments.get(doctor.department);
+        department.remove(doctor);
+        doctor.load += delta;
+        department.add(doctor);
+    }
+
+    private static int weight(VisitStatus status) {
+        return WEIGHTS.get(status);
+    }
+
+    private static void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    private static final class DoctorLoad {
+        private final Long doctorId;
+        private final Department department;
+        private int load;
+
+        private DoctorLoad(Long doctorId, Department department, int load) {
+            this.doctorId = doctorId;
+            this.department = department;
+            this.load = load;
+        }
+    }
+
+    private record TrackedVisit(Long doctorId, VisitStatus status) {
+    }
+
+    public record DoctorLoadView(Long doctorId, int load) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.meditracker.assignment;
+
+import com.meditracker.domain.enums.VisitStatus;
+
+/** Active visit as the assignment engine sees it; loaded by a constructor projection in VisitRepository. */
+public record VisitLoad(Long visitId, Long doctorId, VisitStatus status) {
+}
\ No newline at end of file
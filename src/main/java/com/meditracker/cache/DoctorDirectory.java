@@ -0,0 +1,123 @@
+package com.meditracker.cache;
+
+import com.meditracker.controller.dto.DoctorResponse;
+import com.meditracker.domain.Doctor;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.repository.DoctorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Immutable snapshot of every doctor, indexed by id and by department. Doctors change a few
+ * times a month but are read on every visit start and doctor screen, so reads never touch
+ * the database: the snapshot is rebuilt and swapped in whole after each doctor write, and
+ * at the latest every {@code ttl} to pick up writes made by other instances.
+ * <p>
+ * The {@link Snapshot#etag()} lists the doctor count and each doctor's id and row version as
+ * they are, the way {@link ResponseEtags} writes its tags, so it moves on every committed
+ * doctor write and is identical on every instance holding the same data. The snapshot also
+ * holds the {@link DoctorResponse} of each doctor, so the doctor screens serialize without
+ * mapping. Snapshot entities are detached, and they and the responses are shared between
+ * threads; treat them as read-only.
+ */
+@Component
+public class DoctorDirectory {
+
+    private final DoctorRepository doctorRepository;
+    private final long ttlNanos;
+
+    private volatile Snapshot snapshot;
+    private volatile long loadedAtNanos;
+
+    public DoctorDirectory(DoctorRepository doctorRepository,
+                           @Value("${meditracker.doctor-directory.ttl:PT5M}") Duration ttl) {
+        this.doctorRepository = doctorRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null && !isStale() ? current : refreshIfStale();
+    }
+
+    public Optional<Doctor> find(Long doctorId) {
+        return Optional.ofNullable(snapshot().byId().get(doctorId));
+    }
+
+    private synchronized Snapshot refreshIfStale() {
+        // Another thread may have reloaded while this one waited for the lock
+        return snapshot != null && !isStale() ? snapshot : refresh();
+    }
+
+    private boolean isStale() {
+        return System.nanoTime() - loadedAtNanos > ttlNanos;
+    }
+
+    /** Reloads all doctors and swaps the snapshot; call after a doctor write commits. */
+    public synchronized Snapshot refresh() {
+        List<Doctor> doctors = new ArrayList<>(doctorRepository.findAll());
+        doctors.sort(Comparator.comparing(Doctor::getId));
+
+        Map<Long, Doctor> byId = new LinkedHashMap<>();
+        Map<Department, List<Doctor>> byDepartment = new EnumMap<>(Department.class);
+        List<DoctorResponse> responses = new ArrayList<>(doctors.size());
+        Map<Long, DoctorResponse> responsesById = new LinkedHashMap<>();
+        Map<Department, List<DoctorResponse>> responsesByDepartment = new EnumMap<>(Department.class);
+        for (Department department : Department.values()) {
+            byDepartment.put(department, new ArrayList<>());
+            responsesByDepartment.put(department, new ArrayList<>());
+        }
+        // Weak, so the doctor lists can still be gzipped (see ResponseEtags)
+        StringJoiner etag = new StringJoiner("-", "W/\"doctors-" + doctors.size() + "-", "\"");
+        for (Doctor doctor : doctors) {
+            byId.put(doctor.getId(), doctor);
+            byDepartment.get(doctor.getDepartment()).add(doctor);
+            DoctorResponse response = DoctorResponse.fromDoctor(doctor);
+            responses.add(response);
+            responsesById.put(doctor.getId(), response);
+            responsesByDepartment.get(doctor.getDepartment()).add(response);
+            etag.add(doctor.getId() + "." + doctor.getVersion());
+        }
+        byDepartment.replaceAll((department, list) -> List.copyOf(list));
+        responsesByDepartment.replaceAll((department, list) -> List.copyOf(list));
+
+        String tag = etag.toString();
+        Snapshot previous = snapshot;
+        // Keep Last-Modified stable across reloads that found nothing new
+        Instant lastModified = previous != null && previous.etag().equals(tag) ? previous.lastModified() : Instant.now();
+
+        Snapshot next = new Snapshot(List.copyOf(doctors), Collections.unmodifiableMap(byId),
+                Collections.unmodifiableMap(byDepartment), List.copyOf(responses),
+                Collections.unmodifiableMap(responsesById), Collections.unmodifiableMap(responsesByDepartment),
+                tag, lastModified);
+        snapshot = next;
+        loadedAtNanos = System.nanoTime();
+        return next;
+    }
+
+    public record Snapshot(List<Doctor> all, Map<Long, Doctor> byId, Map<Department, List<Doctor>> byDepartment,
+                           List<DoctorResponse> responses, Map<Long, DoctorResponse> responsesById,
+                           Map<Department, List<DoctorResponse>> responsesByDepartment,
+                           String etag, Instant lastModified) {
+
+        public List<Doctor> inDepartment(Department department) {
+            return byDepartment.get(department);
+        }
+
+        public List<DoctorResponse> responsesIn(Department department) {
+            return responsesByDepartment.get(department);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.meditracker.cache;
+
+import com.meditracker.domain.Patient;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that invalidates cached RFID resolutions and visit summaries
+ * whenever a patient row is updated or removed. The callbacks fire at flush, so both caches
+ * drop their entries only once the write commits. The caches are looked up lazily because
+ * Hibernate builds listeners while the EntityManagerFactory is still being created.
+ */
+@Component
+public class PatientCacheListener {
+
+    private final ObjectProvider<RfidResolutionCache> rfidResolutionCache;
+    private final ObjectProvider<VisitSummaryCache> visitSummaryCache;
+
+    public PatientCacheListener(ObjectProvider<RfidResolutionCache> rfidResolutionCache,
+                                ObjectProvider<VisitSummaryCache> visitSummaryCache) {
+        this.rfidResolutionCache = rfidResolutionCache;
+        this.visitSummaryCache = visitSummaryCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onPatientChanged(Patient patient) {
+        RfidResolutionCache cache = rfidResolutionCache.getIfAvailable();
+        if (cache != null && patient.getId() != null) {
+            cache.evictPatientAfterCommit(patient.getId());
+        }
+        // Summaries carry the patient's name and phone
+        VisitSummaryCache summaries = visitSummaryCache.getIfAvailable();
+        if (summaries != null && patient.getId() != null) {
+            summaries.evictPatient(patient.getId());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.meditracker.cache;
+
+import com.meditracker.datasource.ReplicaLagGuard;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * ETags for read endpoints whose bodies are expensive to build. Each tag comes from one
+ * indexed query over the row versions of everything the body is built from: the
+ * {@code version} of single rows, and the count, highest id and version sum of child rows.
+ * Every update increments a row's version in its own transaction and every insert raises the
+ * count and highest id, so any committed change moves the tag, whatever order the writes
+ * commit in and whatever the servers' clocks say. Like {@link DoctorDirectory}'s, the tag is
+ * identical on every instance reading the same data.
+ * <p>
+ * The values are written into the tag as they are rather than hashed, so two different
+ * states never share a tag. Tags are weak: the gzip and identity encodings of a body differ
+ * byte for byte, and Tomcat does not compress responses carrying a strong ETag.
+ * {@code If-None-Match} compares weakly.
+ * <p>
+ * An empty result means the visit or patient does not exist; the caller then builds the
+ * response as usual and reports the error from there.
+ */
+@Component
+public class ResponseEtags {
+
+    private static final String SUMMARY_SQL = """
+            select v.version, p.version, d.version,
+                   (select count(*) from lab_tests lt where lt.visit_id = v.id),
+                   (select max(lt.id) from lab_tests lt where lt.visit_id = v.id),
+                   (select sum(lt.version) from lab_tests lt where lt.visit_id = v.id),
+                   (select count(*) from billing b where b.visit_id = v.id),
+                   (select max(b.id) from billing b where b.visit_id = v.id),
+                   (select sum(b.version) from billing b where b.visit_id = v.id)
+              from visits v
+              join patients p on p.id = v.patient_id
+              join doctors d on d.id = v.doctor_id
+             where v.id = :id
+            """;
+
+    private static final String HISTORY_SQL = """
+            select p.version,
+                   (select count(*) from visits v where v.patient_id = p.id),
+                   (select max(v.id) from visits v where v.patient_id = p.id),
+                   (select sum(v.version) from visits v where v.patient_id = p.id),
+                   (select sum(d.version) from visits v join doctors d on d.id = v.doctor_id
+                     where v.patient_id = p.id),
+                   (select count(*) from lab_tests lt join visits v on v.id = lt.visit_id
+                     where v.patient_id = p.id),
+                   (select max(lt.id) from lab_tests lt join visits v on v.id = lt.visit_id
+                     where v.patient_id = p.id),
+                   (select sum(lt.version) from lab_tests lt join visits v on v.id = lt.visit_id
+                     where v.patient_id = p.id),
+                   (select count(*) from billing b join visits v on v.id = b.visit_id
+                     where v.patient_id = p.id),
+                   (select max(b.id) from billing b join visits v on v.id = b.visit_id
+                     where v.patient_id = p.id),
+                   (select sum(b.version) from billing b join visits v on v.id = b.visit_id
+                     where v.patient_id = p.id)
+              from patients p
+             where p.id = :id
+            """;
+
+    // Lab test responses also carry the patient's name; a visit's department never changes
+    private static final String LAB_TESTS_SQL = """
+            select p.version,
+                   (select count(*) from lab_tests lt where lt.visit_id = v.id),
+                   (select max(lt.id) from lab_tests lt where lt.visit_id = v.id),
+                   (select sum(lt.version) from lab_tests lt where lt.visit_id = v.id)
+              from visits v
+              join patients p on p.id = v.patient_id
+             where v.id = :id
+            """;
+
+    private static final String BILLS_SQL = """
+            select (select count(*) from billing b where b.visit_id = v.id),
+                   (select max(b.id) from billing b where b.visit_id = v.id),
+                   (select sum(b.version) from billing b where b.visit_id = v.id)
+              from visits v
+             where v.id = :id
+            """;
+
+    private final RfidResolutionCache rfidResolutionCache;
+    private final ReplicaLagGuard replicaLagGuard;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ResponseEtags(RfidResolutionCache rfidResolutionCache, ReplicaLagGuard replicaLagGuard) {
+        this.rfidResolutionCache = rfidResolutionCache;
+        this.replicaLagGuard = replicaLagGuard;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> visitSummary(Long visitId) {
+        replicaLagGuard.readingVisit(visitId);
+        return etag("summary", visitId, SUMMARY_SQL);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> patientHistory(String rfidUid) {
+        Optional<RfidResolution> resolved = rfidResolutionCache.resolve(rfidUid);
+        if (resolved.isEmpty()) {
+            return Optional.empty();
+        }
+        Long patientId = resolved.get().patientId();
+        replicaLagGuard.readingPatient(patientId);
+        return etag("history", patientId, HISTORY_SQL);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> labTests(Long visitId) {
+        replicaLagGuard.readingVisit(visitId);
+        return etag("lab", visitId, LAB_TESTS_SQL);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> bills(Long visitId) {
+        replicaLagGuard.readingVisit(visitId);
+        return etag("bills", visitId, BILLS_SQL);
+    }
+
+    private Optional<String> etag(String kind, Long id, String sql) {
+        List<?> rows = entityManager.createNativeQuery(sql)
+                .setParameter("id", id)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object row = rows.get(0);
+        Object[] columns = row instanceof Object[] array ? array : new Object[] {row};
+        // max and sum are null only when the count beside them is 0
+        String versions = Arrays.stream(columns)
+                .map(column -> column == null ? "0" : column.toString())
+                .collect(Collectors.joining("."));
+        return Optional.of("W/\"" + kind + "-" + id + "-" + versions + "\"");
+    }
+}
@@ -0,0 +1,8 @@
+package com.meditracker.cache;
+
+/**
+ * Identifiers a card tap resolves to, plus the patient's name for queue screens. Kept
+ * deliberately small so the cache never holds on to managed entities across transactions.
+ */
+public record RfidResolution(Long patientId, Long walletId, String patientName) {
+}
@@ -0,0 +1,193 @@
+package com.meditracker.cache;
+
+import com.meditracker.datasource.ReplicaLagGuard;
+import com.meditracker.repository.PatientRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded TTL + LRU cache mapping an RFID card to its patient and wallet ids.
+ * Every kiosk tap starts with this lookup, so a hit saves a database round trip
+ * before any real work happens. Misses fall through to a single projection query.
+ * <p>
+ * A miss loads outside the lock, so a patient write can commit and evict while the load is
+ * running. Every eviction bumps a generation counter, and a loaded resolution is only cached
+ * when the counter has not moved since the miss, so the old row is never put back.
+ * <p>
+ * A miss is a query made before the caller knows the patient, so it cannot pin a recently
+ * written patient to the primary first; the miss pins its transaction instead, and a card
+ * registered a moment ago is found even while the replicas lag.
+ */
+@Component
+public class RfidResolutionCache {
+
+    private final PatientRepository patientRepository;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    // Guarded by entries
+    private final LinkedHashMap<String, Entry> entries;
+    private long evictionCount;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RfidResolutionCache(PatientRepository patientRepository,
+                               ReplicaLagGuard replicaLagGuard,
+                               @Value("${meditracker.rfid-cache.max-size:10000}") int maxSize,
+                               @Value("${meditracker.rfid-cache.ttl:PT30M}") Duration ttl) {
+        this.patientRepository = patientRepository;
+        this.replicaLagGuard = replicaLagGuard;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > RfidResolutionCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<RfidResolution> resolve(String rfidUid) {
+        long token;
+        synchronized (entries) {
+            token = evictionCount;
+            Entry entry = entries.get(rfidUid);
+            if (entry != null) {
+                if (!entry.isExpired(System.nanoTime())) {
+                    hits.increment();
+                    return Optional.of(entry.resolution);
+                }
+                entries.remove(rfidUid);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        replicaLagGuard.readingUnresolved();
+
+        // Load outside the lock; unknown cards are not cached so a later registration is seen immediately
+        Optional<RfidResolution> loaded = patientRepository.findResolutionByRfidUid(rfidUid);
+        loaded.ifPresent(resolution -> {
+            synchronized (entries) {
+                if (evictionCount == token) {
+                    entries.put(rfidUid, new Entry(resolution, System.nanoTime() + ttlNanos));
+                }
+            }
+        });
+        return loaded;
+    }
+
+    public void put(String rfidUid, RfidResolution resolution) {
+        synchronized (entries) {
+            entries.put(rfidUid, new Entry(resolution, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    /**
+     * Populates the cache once the surrounding transaction commits, so a rolled back
+     * registration never leaves ids behind that do not exist in the database.
+     */
+    public void putAfterCommit(String rfidUid, RfidResolution resolution) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(rfidUid, resolution);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(rfidUid, resolution);
+            }
+        });
+    }
+
+    public void evict(String rfidUid) {
+        synchronized (entries) {
+            if (entries.remove(rfidUid) != null) {
+                evictions.increment();
+            }
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Drops every card mapped to the patient once the surrounding write commits. Evicting at
+     * flush would let a tap in the meantime reload the old row and cache it again.
+     */
+    public void evictPatientAfterCommit(Long patientId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictPatient(patientId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictPatient(patientId);
+            }
+        });
+    }
+
+    /** Drops every card mapped to the patient. */
+    public void evictPatient(Long patientId) {
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().resolution.patientId().equals(patientId)) {
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+            evictionCount++;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            evictionCount++;
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(size, maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static final class Entry {
+        private final RfidResolution resolution;
+        private final long expiresAtNanos;
+
+        private Entry(RfidResolution resolution, long expiresAtNanos) {
+            this.resolution = resolution;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos > 0;
+        }
+    }
+
+    public record Stats(int size, int maxSize, long hits, long misses, long evictions) {
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.meditracker.cache;
+
+import com.meditracker.domain.enums.VisitStatus;
+
+/** One row of a patient's visit history before any summary is built; loaded by a constructor projection in VisitRepository. */
+public record VisitHistoryRef(Long visitId, VisitStatus status) {
+}
@@ -0,0 +1,229 @@
+package com.meditracker.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditracker.controller.dto.VisitSummaryDTO;
+import com.meditracker.domain.VisitSummaryRecord;
+import com.meditracker.domain.enums.VisitStatus;
+import com.meditracker.repository.VisitSummaryRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU cache of completed-visit summaries. A completed visit rarely changes, so
+ * its summary is materialized at discharge (or on the first read after the visit completed
+ * some other way) and served as is; live visits are never cached.
+ * <p>
+ * Writes that still touch a completed visit (a late lab order, a result, a payment) call
+ * {@link #evictAfterCommit}. Readers take a {@link #token()} before loading and their
+ * summary is dropped if any eviction happened meanwhile, so a summary built from data read
+ * before a concurrent write can never be cached after that write's eviction.
+ * <p>
+ * With {@code meditracker.summary-cache.persist} discharge summaries are also stored as JSON
+ * in {@code visit_summaries}, so they survive a restart and are shared between instances.
+ * The in-memory copy on other instances is only dropped by size eviction. Cached summaries
+ * are shared between threads; treat them as read-only.
+ */
+@Component
+public class VisitSummaryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitSummaryCache.class);
+
+    private final VisitSummaryRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final int maxSize;
+    private final boolean persist;
+
+    // Guarded by entries
+    private final LinkedHashMap<Long, Entry> entries;
+    private long evictionCount;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VisitSummaryCache(VisitSummaryRecordRepository repository, ObjectMapper objectMapper,
+                             @Value("${meditracker.summary-cache.max-size:10000}") int maxSize,
+                             @Value("${meditracker.summary-cache.persist:false}") boolean persist) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.maxSize = maxSize;
+        this.persist = persist;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > VisitSummaryCache.this.maxSize;
+            }
+        };
+    }
+
+    /** Take before reading the visit from the database; pass to {@link #cacheCompleted}. */
+    public long token() {
+        synchronized (entries) {
+            return evictionCount;
+        }
+    }
+
+    public Optional<VisitSummaryDTO> find(Long visitId) {
+        return Optional.ofNullable(findAll(List.of(visitId)).get(visitId));
+    }
+
+    /** Cached summaries for the given visits; visits without one are simply absent. */
+    public Map<Long, VisitSummaryDTO> findAll(Collection<Long> visitIds) {
+        long token = token();
+        Map<Long, VisitSummaryDTO> found = new HashMap<>();
+        synchronized (entries) {
+            for (Long visitId : visitIds) {
+                Entry entry = entries.get(visitId);
+                if (entry != null) {
+                    found.put(visitId, entry.summary);
+                }
+            }
+        }
+        if (persist && found.size() < visitIds.size()) {
+            List<Long> missing = visitIds.stream().filter(id -> !found.containsKey(id)).toList();
+            for (VisitSummaryRecord record : repository.findAllById(missing)) {
+                VisitSummaryDTO summary = fromJson(record.getSummaryJson());
+                if (summary != null) {
+                    found.put(record.getVisitId(), summary);
+                    cacheCompleted(summary, record.getPatientId(), token);
+                }
+            }
+        }
+        hits.add(found.size());
+        misses.add(visitIds.size() - found.size());
+        return found;
+    }
+
+    /**
+     * Materializes the summary of a visit being discharged: stored in the surrounding
+     * transaction when persistence is on, and cached once that transaction commits.
+     */
+    public void materialize(VisitSummaryDTO summary, Long patientId, long token) {
+        if (persist) {
+            VisitSummaryRecord record = new VisitSummaryRecord();
+            record.setVisitId(summary.getVisitId());
+            record.setPatientId(patientId);
+            record.setSummaryJson(toJson(summary));
+            repository.deleteByVisitId(summary.getVisitId());
+            repository.save(record);
+        }
+        cacheCompleted(summary, patientId, token);
+    }
+
+    /**
+     * Caches a freshly built summary once the surrounding transaction commits, unless the
+     * visit is still live or something was evicted after {@code token} was taken.
+     */
+    public void cacheCompleted(VisitSummaryDTO summary, Long patientId, long token) {
+        if (summary.getStatus() != VisitStatus.COMPLETED) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (entries) {
+                if (evictionCount == token) {
+                    entries.put(summary.getVisitId(), new Entry(summary, patientId));
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops the visit's summary once the surrounding write commits. The stored copy is
+     * deleted right away, inside that write.
+     */
+    public void evictAfterCommit(Long visitId) {
+        if (persist) {
+            repository.deleteByVisitId(visitId);
+        }
+        afterCommit(() -> {
+            synchronized (entries) {
+                entries.remove(visitId);
+                evictionCount++;
+            }
+        });
+    }
+
+    /**
+     * Drops every summary of the patient once the patient write commits. The stored copies
+     * go first and the token moves after them, so a reader that loaded a stored copy before
+     * the delete cannot cache it again.
+     */
+    public void evictPatient(Long patientId) {
+        afterCommit(() -> {
+            if (persist) {
+                repository.deleteByPatientId(patientId);
+            }
+            synchronized (entries) {
+                Iterator<Entry> it = entries.values().iterator();
+                while (it.hasNext()) {
+                    if (it.next().patientId.equals(patientId)) {
+                        it.remove();
+                    }
+                }
+                evictionCount++;
+            }
+        });
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(size, maxSize, hits.sum(), misses.sum());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private String toJson(VisitSummaryDTO summary) {
+        try {
+            return objectMapper.writeValueAsString(summary);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize visit summary " + summary.getVisitId(), e);
+        }
+    }
+
+    private VisitSummaryDTO fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, VisitSummaryDTO.class);
+        } catch (JsonProcessingException e) {
+            // The caller rebuilds the summary from the visit instead
+            log.warn("Could not read stored visit summary: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record Entry(VisitSummaryDTO summary, Long patientId) {
+    }
+
+    public record Stats(int size, int maxSize, long hits, long misses) {
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
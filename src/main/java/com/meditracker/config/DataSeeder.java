@@ -9,7 +9,6 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.math.BigDecimal;
 
 @Configuration
 public class DataSeeder {
@@ -24,7 +23,7 @@ public class DataSeeder {
                 doc.setDepartment(Department.CARDIOLOGY);
                 doc.setFloor("2");
                 doc.setRoomNumber("205");
-                doc.setConsultationFee(new BigDecimal("300.00"));
+                doc.setConsultationFee(Doctor.DEFAULT_CONSULTATION_FEE);
                 doctorRepository.save(doc);
                 log.info("Seeded demo doctor: {}", doc.getFullName());
             }
@@ -0,0 +1,79 @@
+package com.meditracker.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the pooled id sequences of the {@code perf} profile (see META-INF/orm-perf.xml) past
+ * the ids already in their tables, once at startup and before the first insert. Rows written
+ * by an instance without the profile take AUTO_INCREMENT / IDENTITY ids the sequences know
+ * nothing about, so a sequence seeded earlier would hand them out again.
+ * <p>
+ * A sequence value {@code v} reserves ids {@code v - 49 .. v}, so each one is raised to at
+ * least {@code MAX(id) + 50}; a sequence already ahead is left alone. This covers switching
+ * a database to the profile, not instances with and without it writing at the same time.
+ */
+@Component
+@Profile("perf")
+public class PerfSequenceReseeder implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PerfSequenceReseeder.class);
+
+    static final int ALLOCATION_SIZE = 50;
+
+    // Sequence -> the table whose ids it hands out; matches orm-perf.xml
+    static final Map<String, String> SEQUENCES = Map.of(
+            "patients_seq", "patients",
+            "doctors_seq", "doctors",
+            "wallets_seq", "wallets",
+            "visits_seq", "visits",
+            "lab_tests_seq", "lab_tests",
+            "billing_seq", "billing",
+            "wallet_transactions_seq", "wallet_transactions");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Taken so the schema, and with it the sequences, exists before this runs
+    public PerfSequenceReseeder(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        boolean nativeSequences = "H2".equalsIgnoreCase(product);
+        SEQUENCES.forEach((sequence, table) -> {
+            long required = jdbcTemplate.queryForObject(
+                    "select coalesce(max(id), 0) + " + ALLOCATION_SIZE + " from " + table, Long.class);
+            if (nativeSequences ? reseedSequence(sequence, required) : reseedTable(sequence, required)) {
+                log.info("Moved id sequence {} past the rows in {} to {}", sequence, table, required);
+            }
+        });
+    }
+
+    private boolean reseedSequence(String sequence, long required) {
+        Long next = jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where lower(sequence_name) = ?",
+                Long.class, sequence);
+        if (next != null && next >= required) {
+            return false;
+        }
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + required);
+        return true;
+    }
+
+    // MySQL has no sequences; Hibernate emulates each with a one-row table (meditracker_schema.sql)
+    private boolean reseedTable(String sequence, long required) {
+        return jdbcTemplate.update("update " + sequence + " set next_val = ? where next_val < ?",
+                required, required) > 0;
+    }
+}
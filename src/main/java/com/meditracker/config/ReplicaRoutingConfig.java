@@ -0,0 +1,80 @@
+package com.meditracker.config;
+
+import com.meditracker.datasource.ReplicaProperties;
+import com.meditracker.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with primary/replica routing when at least one
+ * replica is configured under {@code meditracker.datasource.replicas}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "meditracker.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             ReplicaProperties replicaProperties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        List<ReplicaProperties.Replica> configured = replicaProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaProperties.Replica replica = configured.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(primaryDataSource.getPoolName() + "-replica-" + i);
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            copyTimeouts(primaryDataSource, dataSource);
+            // Not beans, so Boot's pool metrics do not see them
+            meterRegistry.ifAvailable(registry ->
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    // Replicas fail fast and detect leaks exactly like the primary
+    private static void copyTimeouts(HikariDataSource from, HikariDataSource to) {
+        to.setConnectionTimeout(from.getConnectionTimeout());
+        to.setValidationTimeout(from.getValidationTimeout());
+        to.setIdleTimeout(from.getIdleTimeout());
+        to.setMaxLifetime(from.getMaxLifetime());
+        to.setKeepaliveTime(from.getKeepaliveTime());
+        to.setLeakDetectionThreshold(from.getLeakDetectionThreshold());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
\ No newline at end of file
@@ -1,18 +1,24 @@
 package com.meditracker.config;
 
+import org.springframework.boot.autoconfigure.transaction.TransactionProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class TransactionConfig {
 
+    // Boot's binding reads a bare spring.transaction.default-timeout as seconds
     @Bean
-    public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+    public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager,
+                                                   TransactionProperties transactionProperties) {
+        Duration timeout = transactionProperties.getDefaultTimeout() != null
+                ? transactionProperties.getDefaultTimeout() : Duration.ofSeconds(30);
         TransactionTemplate template = new TransactionTemplate(transactionManager);
-        template.setTimeout(30); // 30 seconds timeout
+        template.setTimeout((int) timeout.toSeconds());
         return template;
     }
 }
-
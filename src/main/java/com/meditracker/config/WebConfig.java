@@ -1,6 +1,10 @@
 package com.meditracker.config;
 
+import com.meditracker.controller.support.KeysetCursor;
+import com.meditracker.idempotency.IdempotencyKeyFilter;
+import com.meditracker.metrics.SqlTraceFilter;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -13,6 +17,8 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("*")  // Allow all origins (including file://)
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(KeysetCursor.NEXT_CURSOR_HEADER, SqlTraceFilter.SQL_COUNT_HEADER,
+                        SqlTraceFilter.SERVER_TIMING_HEADER, IdempotencyKeyFilter.REPLAYED_HEADER, HttpHeaders.ETAG)
                 .allowCredentials(false)
                 .maxAge(3600);
     }
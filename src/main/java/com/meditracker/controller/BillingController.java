@@ -1,11 +1,16 @@
 package com.meditracker.controller;
 
+import com.meditracker.cache.ResponseEtags;
+import com.meditracker.controller.dto.BillingResponse;
 import com.meditracker.controller.dto.RfidPaymentRequest;
-import com.meditracker.domain.Billing;
+import com.meditracker.controller.dto.SettlementReceipt;
+import com.meditracker.controller.dto.VisitPaymentRequest;
+import com.meditracker.controller.support.ConditionalGet;
 import com.meditracker.service.BillingService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -13,7 +18,12 @@ import java.util.List;
 public class BillingController {
 
     private final BillingService billingService;
-    public BillingController(BillingService billingService) { this.billingService = billingService; }
+    private final ResponseEtags responseEtags;
+
+    public BillingController(BillingService billingService, ResponseEtags responseEtags) {
+        this.billingService = billingService;
+        this.responseEtags = responseEtags;
+    }
 
     @PostMapping("/pay")
     public ResponseEntity<Void> pay(@Valid @RequestBody RfidPaymentRequest request) {
@@ -22,15 +32,15 @@ public class BillingController {
     }
     
     @PostMapping("/pay/visit")
-    public ResponseEntity<Void> payVisitBills(@RequestBody java.util.Map<String, Object> request) {
-        String rfidUid = (String) request.get("rfidUid");
-        Long visitId = ((Number) request.get("visitId")).longValue();
-        billingService.payVisitBills(rfidUid, visitId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<SettlementReceipt> payVisitBills(@Valid @RequestBody VisitPaymentRequest request) {
+        return ResponseEntity.ok(billingService.payVisitBills(request.getRfidUid(), request.getVisitId()));
     }
 
     @GetMapping("/visit/{visitId}")
-    public ResponseEntity<List<Billing>> byVisit(@PathVariable Long visitId) {
-        return ResponseEntity.ok(billingService.getByVisit(visitId));
+    public ResponseEntity<List<BillingResponse>> byVisit(@PathVariable Long visitId, WebRequest request) {
+        return ConditionalGet.respond(request, responseEtags.bills(visitId),
+                () -> billingService.getByVisit(visitId).stream()
+                        .map(BillingResponse::fromBilling)
+                        .toList());
     }
 }
\ No newline at end of file
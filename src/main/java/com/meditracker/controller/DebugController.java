@@ -1,5 +1,8 @@
 package com.meditracker.controller;
 
+import com.meditracker.cache.RfidResolutionCache;
+import com.meditracker.metrics.SqlTracer;
+import com.meditracker.notification.NotificationDispatcher;
 import com.meditracker.domain.Patient;
 import com.meditracker.repository.PatientRepository;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,12 +20,21 @@ import java.util.Map;
 public class DebugController {
 
     private final PatientRepository patientRepository;
+    private final RfidResolutionCache rfidResolutionCache;
+    private final NotificationDispatcher notificationDispatcher;
+    private final SqlTracer sqlTracer;
     
     @PersistenceContext
     private EntityManager entityManager;
 
-    public DebugController(PatientRepository patientRepository) {
+    public DebugController(PatientRepository patientRepository,
+                           RfidResolutionCache rfidResolutionCache,
+                           NotificationDispatcher notificationDispatcher,
+                           SqlTracer sqlTracer) {
         this.patientRepository = patientRepository;
+        this.rfidResolutionCache = rfidResolutionCache;
+        this.notificationDispatcher = notificationDispatcher;
+        this.sqlTracer = sqlTracer;
     }
 
     @GetMapping("/check-patient/{rfidUid}")
@@ -50,9 +63,25 @@ public class DebugController {
     public ResponseEntity<Map<String, Object>> forceRefresh() {
         Map<String, Object> result = new HashMap<>();
         entityManager.clear();
+        rfidResolutionCache.clear();
         result.put("cleared", true);
         result.put("totalPatients", patientRepository.count());
         return ResponseEntity.ok(result);
     }
+
+    @GetMapping("/rfid-cache")
+    public ResponseEntity<RfidResolutionCache.Stats> rfidCacheStats() {
+        return ResponseEntity.ok(rfidResolutionCache.stats());
+    }
+
+    @GetMapping("/notifications")
+    public ResponseEntity<NotificationDispatcher.Stats> notificationStats() {
+        return ResponseEntity.ok(notificationDispatcher.stats());
+    }
+
+    @GetMapping("/sql/top")
+    public ResponseEntity<List<SqlTracer.SqlStatementStats>> topSql(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(sqlTracer.top(Math.max(1, Math.min(limit, 200))));
+    }
 }
 
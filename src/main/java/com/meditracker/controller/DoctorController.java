@@ -1,14 +1,21 @@
 package com.meditracker.controller;
 
+import com.meditracker.assignment.DoctorAssignmentEngine;
+import com.meditracker.cache.DoctorDirectory;
 import com.meditracker.controller.dto.DoctorRequest;
+import com.meditracker.controller.dto.DoctorResponse;
+import com.meditracker.controller.support.KeysetCursor;
+import com.meditracker.controller.support.NdjsonStreamer;
 import com.meditracker.domain.Doctor;
+import com.meditracker.domain.Money;
 import com.meditracker.domain.enums.Department;
 import com.meditracker.repository.DoctorRepository;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -16,47 +23,77 @@ import java.util.List;
 public class DoctorController {
 
     private final DoctorRepository doctorRepository;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final DoctorAssignmentEngine doctorAssignment;
+    private final DoctorDirectory doctorDirectory;
 
-    public DoctorController(DoctorRepository doctorRepository) {
+    public DoctorController(DoctorRepository doctorRepository, NdjsonStreamer ndjsonStreamer,
+                            DoctorAssignmentEngine doctorAssignment, DoctorDirectory doctorDirectory) {
         this.doctorRepository = doctorRepository;
+        this.ndjsonStreamer = ndjsonStreamer;
+        this.doctorAssignment = doctorAssignment;
+        this.doctorDirectory = doctorDirectory;
     }
 
     @GetMapping
-    public ResponseEntity<List<Doctor>> getAllDoctors() {
-        List<Doctor> doctors = doctorRepository.findAll();
-        return ResponseEntity.ok(doctors);
+    public ResponseEntity<List<DoctorResponse>> getAllDoctors(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        long after = KeysetCursor.decode(cursor);
+        DoctorDirectory.Snapshot snapshot = doctorDirectory.snapshot();
+        List<DoctorResponse> doctors = snapshot.responses().stream()
+                .filter(d -> d.getId() > after)
+                .limit(pageSize + 1L)
+                .toList();
+        return revalidatable(snapshot, KeysetCursor.page(doctors, pageSize, DoctorResponse::getId, d -> d));
+    }
+
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllDoctors() {
+        return ndjsonStreamer.stream(doctorRepository::streamAll, DoctorResponse::fromDoctor);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Doctor> getDoctorById(@PathVariable Long id) {
-        Doctor doctor = doctorRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
-        return ResponseEntity.ok(doctor);
+    public ResponseEntity<DoctorResponse> getDoctorById(@PathVariable Long id) {
+        DoctorDirectory.Snapshot snapshot = doctorDirectory.snapshot();
+        DoctorResponse doctor = snapshot.responsesById().get(id);
+        if (doctor == null) {
+            throw new IllegalArgumentException("Doctor not found");
+        }
+        return revalidatable(snapshot, ResponseEntity.ok(doctor));
     }
 
     @GetMapping("/department/{department}")
-    public ResponseEntity<List<Doctor>> getDoctorsByDepartment(@PathVariable Department department) {
-        List<Doctor> doctors = doctorRepository.findByDepartment(department);
-        return ResponseEntity.ok(doctors);
+    public ResponseEntity<List<DoctorResponse>> getDoctorsByDepartment(@PathVariable Department department) {
+        DoctorDirectory.Snapshot snapshot = doctorDirectory.snapshot();
+        return revalidatable(snapshot, ResponseEntity.ok(snapshot.responsesIn(department)));
+    }
+
+    /** Weighted active-visit load per doctor, in the order new visits would be assigned. */
+    @GetMapping("/department/{department}/load")
+    public ResponseEntity<List<DoctorAssignmentEngine.DoctorLoadView>> getDepartmentLoad(@PathVariable Department department) {
+        return ResponseEntity.ok(doctorAssignment.loads(department));
     }
 
     @PostMapping
-    public ResponseEntity<Doctor> createDoctor(@Valid @RequestBody DoctorRequest request) {
+    public ResponseEntity<DoctorResponse> createDoctor(@Valid @RequestBody DoctorRequest request) {
         Doctor doctor = new Doctor();
         doctor.setFullName(request.getFullName());
         doctor.setDepartment(request.getDepartment());
         doctor.setRoomNumber(request.getRoomNumber());
         doctor.setFloor(request.getFloor());
-        doctor.setConsultationFee(request.getConsultationFee() != null ? 
-                request.getConsultationFee() : new BigDecimal("300.00"));
+        doctor.setConsultationFee(request.getConsultationFee() != null ?
+                Money.of(request.getConsultationFee()) : Doctor.DEFAULT_CONSULTATION_FEE);
         
-        Doctor saved = doctorRepository.saveAndFlush(doctor);
-        return ResponseEntity.ok(saved);
+        Doctor saved = doctorRepository.save(doctor);
+        doctorDirectory.refresh();
+        doctorAssignment.doctorSaved(saved);
+        return ResponseEntity.ok(DoctorResponse.fromDoctor(saved));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Doctor> updateDoctor(@PathVariable Long id, 
-                                               @Valid @RequestBody DoctorRequest request) {
+    public ResponseEntity<DoctorResponse> updateDoctor(@PathVariable Long id,
+                                                       @Valid @RequestBody DoctorRequest request) {
         Doctor doctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
         
@@ -65,11 +102,13 @@ public class DoctorController {
         doctor.setRoomNumber(request.getRoomNumber());
         doctor.setFloor(request.getFloor());
         if (request.getConsultationFee() != null) {
-            doctor.setConsultationFee(request.getConsultationFee());
+            doctor.setConsultationFee(Money.of(request.getConsultationFee()));
         }
         
-        Doctor updated = doctorRepository.saveAndFlush(doctor);
-        return ResponseEntity.ok(updated);
+        Doctor updated = doctorRepository.save(doctor);
+        doctorDirectory.refresh();
+        doctorAssignment.doctorSaved(updated);
+        return ResponseEntity.ok(DoctorResponse.fromDoctor(updated));
     }
 
     @DeleteMapping("/{id}")
@@ -78,7 +117,19 @@ public class DoctorController {
             throw new IllegalArgumentException("Doctor not found");
         }
         doctorRepository.deleteById(id);
+        doctorDirectory.refresh();
+        doctorAssignment.doctorRemoved(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Screens revalidate with If-None-Match / If-Modified-Since and get a 304 while nothing changed
+    private static <T> ResponseEntity<T> revalidatable(DoctorDirectory.Snapshot snapshot, ResponseEntity<T> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(snapshot.etag())
+                .lastModified(snapshot.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .body(response.getBody());
+    }
 }
 
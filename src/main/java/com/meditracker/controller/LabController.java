@@ -1,17 +1,26 @@
 package com.meditracker.controller;
 
+import com.meditracker.cache.ResponseEtags;
+import com.meditracker.controller.dto.ClaimLabTestRequest;
 import com.meditracker.controller.dto.LabTestDTO;
 import com.meditracker.controller.dto.OrderLabTestRequest;
 import com.meditracker.controller.dto.UpdateLabStatusRequest;
+import com.meditracker.controller.support.ConditionalGet;
+import com.meditracker.controller.support.KeysetCursor;
+import com.meditracker.controller.support.NdjsonStreamer;
 import com.meditracker.domain.LabTest;
 import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
 import com.meditracker.domain.enums.LabTestStatus;
+import com.meditracker.queue.LabWorklist;
 import com.meditracker.repository.LabTestRepository;
 import com.meditracker.repository.VisitRepository;
 import com.meditracker.service.LabService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,57 +32,89 @@ public class LabController {
     private final LabService labService;
     private final LabTestRepository labTestRepository;
     private final VisitRepository visitRepository;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final LabWorklist labWorklist;
+    private final ResponseEtags responseEtags;
     
     public LabController(LabService labService, 
                         LabTestRepository labTestRepository,
-                        VisitRepository visitRepository) {
+                        VisitRepository visitRepository,
+                        NdjsonStreamer ndjsonStreamer,
+                        LabWorklist labWorklist,
+                        ResponseEtags responseEtags) {
         this.labService = labService;
         this.labTestRepository = labTestRepository;
         this.visitRepository = visitRepository;
+        this.ndjsonStreamer = ndjsonStreamer;
+        this.labWorklist = labWorklist;
+        this.responseEtags = responseEtags;
     }
 
     @GetMapping
-    public ResponseEntity<List<LabTestDTO>> getAllLabTests() {
-        List<LabTestDTO> tests = labTestRepository.findAll().stream()
-                .map(LabTestDTO::fromLabTest)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(tests);
+    public ResponseEntity<List<LabTestDTO>> getAllLabTests(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<LabTest> tests = labTestRepository.findByIdGreaterThanOrderByIdAsc(
+                KeysetCursor.decode(cursor), KeysetCursor.fetchLimit(pageSize));
+        return KeysetCursor.page(tests, pageSize, LabTest::getId, LabTestDTO::fromLabTest);
     }
 
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllLabTests() {
+        return ndjsonStreamer.stream(labTestRepository::streamAll, LabTestDTO::fromLabTest);
+    }
+
+    // Open tests come from the worklist; only completed ones still need the table
     @GetMapping("/status/{status}")
     public ResponseEntity<List<LabTestDTO>> getTestsByStatus(@PathVariable LabTestStatus status) {
+        if (status != LabTestStatus.COMPLETED) {
+            return ResponseEntity.ok(labWorklist.byStatus(status));
+        }
         List<LabTestDTO> tests = labTestRepository.findByStatus(status).stream()
                 .map(LabTestDTO::fromLabTest)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(tests);
     }
 
+    @GetMapping("/worklist")
+    public ResponseEntity<List<LabTestDTO>> getWorklist(@RequestParam(required = false) Department department) {
+        return ResponseEntity.ok(labWorklist.snapshot(department));
+    }
+
+    @PostMapping("/worklist/claim")
+    public ResponseEntity<LabTestDTO> claimNext(@Valid @RequestBody ClaimLabTestRequest request) {
+        return labService.claimNext(request.getTechnician(), request.getDepartment())
+                .map(test -> ResponseEntity.ok(LabTestDTO.fromLabTest(test)))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
     @GetMapping("/visit/{visitId}")
-    public ResponseEntity<List<LabTestDTO>> getTestsByVisit(@PathVariable Long visitId) {
-        Visit visit = visitRepository.findById(visitId)
-                .orElseThrow(() -> new IllegalArgumentException("Visit not found"));
-        List<LabTestDTO> tests = labTestRepository.findByVisit(visit).stream()
-                .map(LabTestDTO::fromLabTest)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(tests);
+    public ResponseEntity<List<LabTestDTO>> getTestsByVisit(@PathVariable Long visitId, WebRequest request) {
+        return ConditionalGet.respond(request, responseEtags.labTests(visitId), () -> {
+            Visit visit = visitRepository.findById(visitId)
+                    .orElseThrow(() -> new IllegalArgumentException("Visit not found"));
+            return labTestRepository.findByVisit(visit).stream()
+                    .map(LabTestDTO::fromLabTest)
+                    .collect(Collectors.toList());
+        });
     }
 
     @GetMapping("/{labTestId}")
-    public ResponseEntity<LabTest> getLabTest(@PathVariable Long labTestId) {
+    public ResponseEntity<LabTestDTO> getLabTest(@PathVariable Long labTestId) {
         LabTest test = labTestRepository.findById(labTestId)
                 .orElseThrow(() -> new IllegalArgumentException("Lab test not found"));
-        return ResponseEntity.ok(test);
+        return ResponseEntity.ok(LabTestDTO.fromLabTest(test));
     }
 
     @PostMapping("/{visitId}/order")
-    public ResponseEntity<LabTest> order(@PathVariable Long visitId, @Valid @RequestBody OrderLabTestRequest request) {
-        LabTest test = labService.orderTest(visitId, request.getTestName(), request.getPrice());
-        return ResponseEntity.ok(test);
+    public ResponseEntity<LabTestDTO> order(@PathVariable Long visitId, @Valid @RequestBody OrderLabTestRequest request) {
+        LabTest test = labService.orderTest(visitId, request.getTestName(), request.getPrice(), request.isUrgent());
+        return ResponseEntity.ok(LabTestDTO.fromLabTest(test));
     }
 
     @PostMapping("/tests/{labTestId}/status")
-    public ResponseEntity<LabTest> updateStatus(@PathVariable Long labTestId, @Valid @RequestBody UpdateLabStatusRequest request) {
+    public ResponseEntity<LabTestDTO> updateStatus(@PathVariable Long labTestId, @Valid @RequestBody UpdateLabStatusRequest request) {
         LabTest test = labService.updateStatus(labTestId, request.getStatus(), request.getResultText());
-        return ResponseEntity.ok(test);
+        return ResponseEntity.ok(LabTestDTO.fromLabTest(test));
     }
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.meditracker.controller;
 
+import com.meditracker.cache.RfidResolutionCache;
 import com.meditracker.controller.dto.PatientResponse;
+import com.meditracker.controller.dto.VisitResponse;
+import com.meditracker.controller.support.KeysetCursor;
+import com.meditracker.controller.support.NdjsonStreamer;
 import com.meditracker.domain.Patient;
 import com.meditracker.domain.Visit;
 import com.meditracker.repository.PatientRepository;
@@ -9,9 +13,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/patients")
@@ -21,49 +25,69 @@ public class PatientController {
     
     private final PatientRepository patientRepository;
     private final VisitRepository visitRepository;
+    private final RfidResolutionCache rfidResolutionCache;
+    private final NdjsonStreamer ndjsonStreamer;
 
-    public PatientController(PatientRepository patientRepository, VisitRepository visitRepository) {
+    public PatientController(PatientRepository patientRepository,
+                             VisitRepository visitRepository,
+                             RfidResolutionCache rfidResolutionCache,
+                             NdjsonStreamer ndjsonStreamer) {
         this.patientRepository = patientRepository;
         this.visitRepository = visitRepository;
+        this.rfidResolutionCache = rfidResolutionCache;
+        this.ndjsonStreamer = ndjsonStreamer;
     }
 
     @GetMapping
-    public ResponseEntity<List<PatientResponse>> getAllPatients() {
-        log.info("GET /api/patients - Getting all patients");
-        List<PatientResponse> patients = patientRepository.findAll().stream()
-                .map(PatientResponse::new)
-                .collect(Collectors.toList());
-        log.info("Found {} patients", patients.size());
-        return ResponseEntity.ok(patients);
+    public ResponseEntity<List<PatientResponse>> getAllPatients(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        log.info("GET /api/patients - Getting patients page");
+        int pageSize = KeysetCursor.pageSize(size);
+        List<Patient> patients = patientRepository.findByIdGreaterThanOrderByIdAsc(
+                KeysetCursor.decode(cursor), KeysetCursor.fetchLimit(pageSize));
+        log.info("Found {} patients", Math.min(patients.size(), pageSize));
+        return KeysetCursor.page(patients, pageSize, Patient::getId, PatientResponse::new);
+    }
+
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllPatients() {
+        log.info("GET /api/patients?stream=true - Streaming all patients");
+        return ndjsonStreamer.stream(patientRepository::streamAll, PatientResponse::new);
     }
 
     // More specific paths MUST come before generic path variables
     @GetMapping("/rfid/{rfidUid}")
-    public ResponseEntity<Patient> getPatientByRfid(@PathVariable String rfidUid) {
+    public ResponseEntity<PatientResponse> getPatientByRfid(@PathVariable String rfidUid) {
         log.info("GET /api/patients/rfid/{} - Looking for patient by RFID", rfidUid);
-        Patient patient = patientRepository.findByRfidUid(rfidUid)
+        Patient patient = rfidResolutionCache.resolve(rfidUid)
+                .flatMap(resolved -> patientRepository.findById(resolved.patientId()))
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found with RFID: " + rfidUid));
         log.info("Found patient: {}", patient.getFullName());
-        return ResponseEntity.ok(patient);  // Return Patient directly like registration does
+        return ResponseEntity.ok(new PatientResponse(patient));
     }
 
     // Generic /{id} comes LAST to avoid catching specific paths
     @GetMapping("/{id}")
-    public ResponseEntity<Patient> getPatientById(@PathVariable Long id) {
+    public ResponseEntity<PatientResponse> getPatientById(@PathVariable Long id) {
         log.info("GET /api/patients/{} - Looking for patient by ID", id);
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
         log.info("Found patient: {}", patient.getFullName());
-        return ResponseEntity.ok(patient);  // Return Patient directly like registration does
+        return ResponseEntity.ok(new PatientResponse(patient));
     }
 
     @GetMapping("/{patientId}/visits")
-    public ResponseEntity<List<Visit>> getPatientVisits(@PathVariable Long patientId) {
-        log.info("GET /api/patients/{}/visits - Getting visits for patient", patientId);
-        Patient patient = patientRepository.findById(patientId)
-                .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
-        List<Visit> visits = visitRepository.findByPatientOrderByCreatedAtDesc(patient);
-        return ResponseEntity.ok(visits);
+    public ResponseEntity<List<VisitResponse>> getPatientVisits(@PathVariable Long patientId,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        log.info("GET /api/patients/{}/visits - Getting visits page for patient", patientId);
+        if (!patientRepository.existsById(patientId)) {
+            throw new IllegalArgumentException("Patient not found");
+        }
+        int pageSize = KeysetCursor.pageSize(size);
+        List<Visit> visits = visitRepository.findByPatientIdAndIdGreaterThanOrderByIdAsc(
+                patientId, KeysetCursor.decode(cursor), KeysetCursor.fetchLimit(pageSize));
+        return KeysetCursor.page(visits, pageSize, Visit::getId, VisitResponse::fromVisit);
     }
 }
 
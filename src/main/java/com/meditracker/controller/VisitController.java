@@ -1,16 +1,24 @@
 package com.meditracker.controller;
 
+import com.meditracker.cache.ResponseEtags;
 import com.meditracker.controller.dto.*;
+import com.meditracker.controller.support.ConditionalGet;
+import com.meditracker.controller.support.KeysetCursor;
+import com.meditracker.controller.support.NdjsonStreamer;
+import com.meditracker.queue.DepartmentQueueBoard;
 import com.meditracker.domain.Visit;
 import com.meditracker.domain.enums.Department;
 import com.meditracker.domain.enums.VisitStatus;
 import com.meditracker.repository.VisitRepository;
 import com.meditracker.service.VisitService;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/visits")
@@ -18,62 +26,89 @@ public class VisitController {
 
     private final VisitService visitService;
     private final VisitRepository visitRepository;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final DepartmentQueueBoard queueBoard;
+    private final ResponseEtags responseEtags;
     
-    public VisitController(VisitService visitService, VisitRepository visitRepository) {
+    public VisitController(VisitService visitService,
+                           VisitRepository visitRepository,
+                           NdjsonStreamer ndjsonStreamer,
+                           DepartmentQueueBoard queueBoard,
+                           ResponseEtags responseEtags) {
         this.visitService = visitService;
         this.visitRepository = visitRepository;
+        this.ndjsonStreamer = ndjsonStreamer;
+        this.queueBoard = queueBoard;
+        this.responseEtags = responseEtags;
     }
 
     @GetMapping
-    public ResponseEntity<List<Visit>> getAllVisits() {
-        List<Visit> visits = visitRepository.findAll();
-        return ResponseEntity.ok(visits);
+    public ResponseEntity<List<VisitResponse>> getAllVisits(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<Visit> visits = visitRepository.findByIdGreaterThanOrderByIdAsc(
+                KeysetCursor.decode(cursor), KeysetCursor.fetchLimit(pageSize));
+        return KeysetCursor.page(visits, pageSize, Visit::getId, VisitResponse::fromVisit);
+    }
+
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllVisits() {
+        return ndjsonStreamer.stream(visitRepository::streamAll, VisitResponse::fromVisit);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Visit>> getVisitsByStatus(@PathVariable VisitStatus status) {
-        List<Visit> visits = visitRepository.findByStatus(status);
-        return ResponseEntity.ok(visits);
+    public ResponseEntity<List<VisitResponse>> getVisitsByStatus(@PathVariable VisitStatus status,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<Visit> visits = visitRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                status, KeysetCursor.decode(cursor), KeysetCursor.fetchLimit(pageSize));
+        return KeysetCursor.page(visits, pageSize, Visit::getId, VisitResponse::fromVisit);
     }
     
     @GetMapping("/active")
     public ResponseEntity<List<ActiveVisitDTO>> getActiveVisits() {
-        // Get all visits that are not completed and convert to DTO
-        List<ActiveVisitDTO> visits = visitRepository.findAll().stream()
-                .filter(v -> v.getStatus() != VisitStatus.COMPLETED)
-                .map(ActiveVisitDTO::fromVisit)
-                .collect(Collectors.toList());
+        // Projection straight from the status index; completed history is never loaded
+        List<ActiveVisitDTO> visits = visitRepository.findActiveVisits();
         return ResponseEntity.ok(visits);
     }
     
     @GetMapping("/department/{department}")
     public ResponseEntity<List<ActiveVisitDTO>> getVisitsByDepartment(@PathVariable Department department) {
         // Get all active visits for a specific department
-        List<ActiveVisitDTO> visits = visitRepository.findByDepartmentAndStatusNot(department, VisitStatus.COMPLETED)
-                .stream()
-                .map(ActiveVisitDTO::fromVisit)
-                .collect(Collectors.toList());
+        List<ActiveVisitDTO> visits = visitRepository.findActiveVisitsByDepartment(department);
         return ResponseEntity.ok(visits);
     }
 
+    // Push-based alternatives to polling the two endpoints above
+    @GetMapping(path = "/active/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamActiveVisits() {
+        return queueBoard.subscribe(null);
+    }
+
+    @GetMapping(path = "/department/{department}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDepartmentQueue(@PathVariable Department department) {
+        return queueBoard.subscribe(department);
+    }
+
     @PostMapping("/start")
-    public ResponseEntity<Visit> start(@Valid @RequestBody StartVisitRequest request) {
+    public ResponseEntity<VisitResponse> start(@Valid @RequestBody StartVisitRequest request) {
         Visit visit = visitService.startVisit(request.getRfidUid(), request.getDepartment());
-        return ResponseEntity.ok(visit);
+        return ResponseEntity.ok(VisitResponse.fromVisit(visit));
     }
 
     @PostMapping("/{visitId}/vitals")
-    public ResponseEntity<Visit> recordVitals(@PathVariable Long visitId, @Valid @RequestBody VitalsRequest request) {
+    public ResponseEntity<VisitResponse> recordVitals(@PathVariable Long visitId, @Valid @RequestBody VitalsRequest request) {
         Visit visit = visitService.recordVitals(visitId, request.getTemperatureCelsius(),
                 request.getBpSystolic(), request.getBpDiastolic(), request.getHeartRate());
-        return ResponseEntity.ok(visit);
+        return ResponseEntity.ok(VisitResponse.fromVisit(visit));
     }
 
     @PostMapping("/{visitId}/consultation")
-    public ResponseEntity<Visit> consultation(@PathVariable Long visitId, @Valid @RequestBody ConsultationRequest request) {
+    public ResponseEntity<VisitResponse> consultation(@PathVariable Long visitId, @Valid @RequestBody ConsultationRequest request) {
         Visit visit = visitService.addConsultation(visitId, request.getDiagnosis(),
                 request.getMedications(), request.isTestsNeeded());
-        return ResponseEntity.ok(visit);
+        return ResponseEntity.ok(VisitResponse.fromVisit(visit));
     }
 
     @PostMapping("/discharge")
@@ -83,14 +118,14 @@ public class VisitController {
     }
 
     @GetMapping("/{visitId}/summary")
-    public ResponseEntity<VisitSummaryDTO> getVisitSummary(@PathVariable Long visitId) {
-        VisitSummaryDTO summary = visitService.getVisitSummary(visitId);
-        return ResponseEntity.ok(summary);
+    public ResponseEntity<VisitSummaryDTO> getVisitSummary(@PathVariable Long visitId, WebRequest request) {
+        return ConditionalGet.respond(request, responseEtags.visitSummary(visitId),
+                () -> visitService.getVisitSummary(visitId));
     }
 
     @GetMapping("/history/{rfidUid}")
-    public ResponseEntity<List<VisitSummaryDTO>> getPatientHistory(@PathVariable String rfidUid) {
-        List<VisitSummaryDTO> history = visitService.getPatientVisitHistory(rfidUid);
-        return ResponseEntity.ok(history);
+    public ResponseEntity<List<VisitSummaryDTO>> getPatientHistory(@PathVariable String rfidUid, WebRequest request) {
+        return ConditionalGet.respond(request, responseEtags.patientHistory(rfidUid),
+                () -> visitService.getPatientVisitHistory(rfidUid));
     }
 }
\ No newline at end of file
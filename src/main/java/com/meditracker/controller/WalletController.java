@@ -1,5 +1,6 @@
 package com.meditracker.controller;
 
+import com.meditracker.controller.dto.WalletResponse;
 import com.meditracker.controller.dto.WalletTopUpRequest;
 import com.meditracker.domain.Wallet;
 import com.meditracker.service.WalletService;
@@ -18,25 +19,24 @@ public class WalletController {
     }
 
     @PostMapping("/topup")
-    public ResponseEntity<Wallet> topUp(@Valid @RequestBody WalletTopUpRequest request) {
-        Wallet wallet = walletService.topUp(
+    public ResponseEntity<WalletResponse> topUp(@Valid @RequestBody WalletTopUpRequest request) {
+        return ResponseEntity.ok(walletService.topUp(
                 request.getRfidUid(),
                 request.getAmount(),
                 request.getPaymentMethod()
-        );
-        return ResponseEntity.ok(wallet);
+        ));
     }
 
     @GetMapping("/rfid/{rfidUid}")
-    public ResponseEntity<Wallet> getByRfid(@PathVariable String rfidUid) {
+    public ResponseEntity<WalletResponse> getByRfid(@PathVariable String rfidUid) {
         Wallet wallet = walletService.getWalletByRfid(rfidUid);
-        return ResponseEntity.ok(wallet);
+        return ResponseEntity.ok(WalletResponse.fromWallet(wallet));
     }
 
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<Wallet> getByPatientId(@PathVariable Long patientId) {
+    public ResponseEntity<WalletResponse> getByPatientId(@PathVariable Long patientId) {
         Wallet wallet = walletService.getWalletByPatientId(patientId);
-        return ResponseEntity.ok(wallet);
+        return ResponseEntity.ok(WalletResponse.fromWallet(wallet));
     }
 }
 
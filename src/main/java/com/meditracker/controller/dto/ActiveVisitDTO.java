@@ -0,0 +1,73 @@
+package com.meditracker.controller.dto;
+
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.VisitStatus;
+import java.time.LocalDateTime;
+
+public class ActiveVisitDTO {
+    private Long visitId;
+    private String patientName;
+    private String rfidUid;
+    private Department department;
+    private VisitStatus status;
+    private String doctorName;
+    private String roomNumber;
+    private String floor;
+    private LocalDateTime createdAt;
+
+    public ActiveVisitDTO() {}
+
+    // Used by the JPQL constructor projection in VisitRepository
+    public ActiveVisitDTO(Long visitId, String patientName, String rfidUid, Department department,
+                          VisitStatus status, String doctorName, String roomNumber, String floor,
+                          LocalDateTime createdAt) {
+        this.visitId = visitId;
+        this.patientName = patientName;
+        this.rfidUid = rfidUid;
+        this.department = department;
+        this.status = status;
+        this.doctorName = doctorName;
+        this.roomNumber = roomNumber;
+        this.floor = floor;
+        this.createdAt = createdAt;
+    }
+
+    public static ActiveVisitDTO fromVisit(Visit visit) {
+        return fromVisit(visit, visit.getPatient().getFullName(), visit.getPatient().getRfidUid());
+    }
+
+    // For card taps, which know the patient from the RFID cache and hold only a proxy
+    public static ActiveVisitDTO fromVisit(Visit visit, String patientName, String rfidUid) {
+        return new ActiveVisitDTO(
+                visit.getId(),
+                patientName,
+                rfidUid,
+                visit.getDepartment(),
+                visit.getStatus(),
+                visit.getDoctor().getFullName(),
+                visit.getDoctor().getRoomNumber(),
+                visit.getDoctor().getFloor(),
+                visit.getCreatedAt()
+        );
+    }
+
+    public Long getVisitId() { return visitId; }
+    public void setVisitId(Long visitId) { this.visitId = visitId; }
+    public String getPatientName() { return patientName; }
+    public void setPatientName(String patientName) { this.patientName = patientName; }
+    public String getRfidUid() { return rfidUid; }
+    public void setRfidUid(String rfidUid) { this.rfidUid = rfidUid; }
+    public Department getDepartment() { return department; }
+    public void setDepartment(Department department) { this.department = department; }
+    public VisitStatus getStatus() { return status; }
+    public void setStatus(VisitStatus status) { this.status = status; }
+    public String getDoctorName() { return doctorName; }
+    public void setDoctorName(String doctorName) { this.doctorName = doctorName; }
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+    public String getFloor() { return floor; }
+    public void setFloor(String floor) { this.floor = floor; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,54 @@
+package com.meditracker.controller.dto;
+
+import com.meditracker.domain.Billing;
+import com.meditracker.domain.enums.BillingStatus;
+import com.meditracker.domain.enums.BillingType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class BillingResponse {
+    private Long id;
+    private Long visitId;
+    private BillingType type;
+    private String itemDescription;
+    private BigDecimal amount;
+    private BillingStatus status;
+    private LocalDateTime paidAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public BillingResponse() {}
+
+    public static BillingResponse fromBilling(Billing billing) {
+        BillingResponse dto = new BillingResponse();
+        dto.setId(billing.getId());
+        dto.setVisitId(billing.getVisit().getId());
+        dto.setType(billing.getType());
+        dto.setItemDescription(billing.getItemDescription());
+        dto.setAmount(billing.getAmount().toBigDecimal());
+        dto.setStatus(billing.getStatus());
+        dto.setPaidAt(billing.getPaidAt());
+        dto.setCreatedAt(billing.getCreatedAt());
+        dto.setUpdatedAt(billing.getUpdatedAt());
+        return dto;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getVisitId() { return visitId; }
+    public void setVisitId(Long visitId) { this.visitId = visitId; }
+    public BillingType getType() { return type; }
+    public void setType(BillingType type) { this.type = type; }
+    public String getItemDescription() { return itemDescription; }
+    public void setItemDescription(String itemDescription) { this.itemDescription = itemDescription; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public BillingStatus getStatus() { return status; }
+    public void setStatus(BillingStatus status) { this.status = status; }
+    public LocalDateTime getPaidAt() { return paidAt; }
+    public void setPaidAt(LocalDateTime paidAt) { this.paidAt = paidAt; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
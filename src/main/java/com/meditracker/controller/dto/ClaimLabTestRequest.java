@@ -0,0 +1,17 @@
+package com.meditracker.controller.dto;
+
+import com.meditracker.domain.enums.Department;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class ClaimLabTestRequest {
+    @NotBlank
+    @Size(max = 80)
+    private String technician;
+    private Department department;
+
+    public String getTechnician() { return technician; }
+    public void setTechnician(String technician) { this.technician = technician; }
+    public Department getDepartment() { return department; }
+    public void setDepartment(Department department) { this.department = department; }
+}
@@ -0,0 +1,49 @@
+package com.meditracker.controller.dto;
+
+import com.meditracker.domain.Doctor;
+import com.meditracker.domain.enums.Department;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class DoctorResponse {
+    private Long id;
+    private String fullName;
+    private Department department;
+    private String roomNumber;
+    private String floor;
+    private BigDecimal consultationFee;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public DoctorResponse() {}
+
+    public static DoctorResponse fromDoctor(Doctor doctor) {
+        DoctorResponse dto = new DoctorResponse();
+        dto.setId(doctor.getId());
+        dto.setFullName(doctor.getFullName());
+        dto.setDepartment(doctor.getDepartment());
+        dto.setRoomNumber(doctor.getRoomNumber());
+        dto.setFloor(doctor.getFloor());
+        dto.setConsultationFee(doctor.getConsultationFee() != null ? doctor.getConsultationFee().toBigDecimal() : null);
+        dto.setCreatedAt(doctor.getCreatedAt());
+        dto.setUpdatedAt(doctor.getUpdatedAt());
+        return dto;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getFullName() { return fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; }
+    public Department getDepartment() { return department; }
+    public void setDepartment(Department department) { this.department = department; }
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+    public String getFloor() { return floor; }
+    public void setFloor(String floor) { this.floor = floor; }
+    public BigDecimal getConsultationFee() { return consultationFee; }
+    public void setConsultationFee(BigDecimal consultationFee) { this.consultationFee = consultationFee; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,72 @@
+package com.meditracker.controller.dto;
+
+import com.meditracker.domain.LabTest;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.LabTestStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class LabTestDTO {
+    private Long id;
+    private Long visitId;
+    private String patientName;
+    private Department department;
+    private String testName;
+    private LabTestStatus status;
+    private BigDecimal price;
+    private String resultText;
+    private LocalDateTime completedAt;
+    private boolean urgent;
+    private String claimedBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public LabTestDTO() {}
+
+    public static LabTestDTO fromLabTest(LabTest labTest) {
+        LabTestDTO dto = new LabTestDTO();
+        dto.setId(labTest.getId());
+        Visit visit = labTest.getVisit();
+        dto.setVisitId(visit.getId());
+        dto.setPatientName(visit.getPatient().getFullName());
+        dto.setDepartment(visit.getDepartment());
+        dto.setTestName(labTest.getTestName());
+        dto.setStatus(labTest.getStatus());
+        dto.setPrice(labTest.getPrice().toBigDecimal());
+        dto.setResultText(labTest.getResultText());
+        dto.setCompletedAt(labTest.getCompletedAt());
+        dto.setUrgent(labTest.isUrgent());
+        dto.setClaimedBy(labTest.getClaimedBy());
+        dto.setCreatedAt(labTest.getCreatedAt());
+        dto.setUpdatedAt(labTest.getUpdatedAt());
+        return dto;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getVisitId() { return visitId; }
+    public void setVisitId(Long visitId) { this.visitId = visitId; }
+    public String getPatientName() { return patientName; }
+    public void setPatientName(String patientName) { this.patientName = patientName; }
+    public Department getDepartment() { return department; }
+    public void setDepartment(Department department) { this.department = department; }
+    public String getTestName() { return testName; }
+    public void setTestName(String testName) { this.testName = testName; }
+    public LabTestStatus getStatus() { return status; }
+    public void setStatus(LabTestStatus status) { this.status = status; }
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+    public String getResultText() { return resultText; }
+    public void setResultText(String resultText) { this.resultText = resultText; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+    public boolean isUrgent() { return urgent; }
+    public void setUrgent(boolean urgent) { this.urgent = urgent; }
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
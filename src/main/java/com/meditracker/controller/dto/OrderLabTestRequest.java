@@ -11,9 +11,12 @@ public class OrderLabTestRequest {
     private String testName;
     @NotNull
     private BigDecimal price;
+    private boolean urgent;
 
     public String getTestName() { return testName; }
     public void setTestName(String testName) { this.testName = testName; }
     public BigDecimal getPrice() { return price; }
     public void setPrice(BigDecimal price) { this.price = price; }
+    public boolean isUrgent() { return urgent; }
+    public void setUrgent(boolean urgent) { this.urgent = urgent; }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.meditracker.controller.dto;
+
+import com.meditracker.domain.enums.VisitStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class SettlementReceipt {
+    private Long visitId;
+    private VisitStatus visitStatus;
+    private List<VisitSummaryDTO.BillingItem> itemsPaid;
+    private BigDecimal totalPaid;
+    private BigDecimal remainingBalance;
+    private LocalDateTime paidAt;
+
+    public SettlementReceipt() {}
+
+    public Long getVisitId() { return visitId; }
+    public void setVisitId(Long visitId) { this.visitId = visitId; }
+    public VisitStatus getVisitStatus() { return visitStatus; }
+    public void setVisitStatus(VisitStatus visitStatus) { this.visitStatus = visitStatus; }
+    public List<VisitSummaryDTO.BillingItem> getItemsPaid() { return itemsPaid; }
+    public void setItemsPaid(List<VisitSummaryDTO.BillingItem> itemsPaid) { this.itemsPaid = itemsPaid; }
+    public BigDecimal getTotalPaid() { return totalPaid; }
+    public void setTotalPaid(BigDecimal totalPaid) { this.totalPaid = totalPaid; }
+    public BigDecimal getRemainingBalance() { return remainingBalance; }
+    public void setRemainingBalance(BigDecimal remainingBalance) { this.remainingBalance = remainingBalance; }
+    public LocalDateTime getPaidAt() { return paidAt; }
+    public void setPaidAt(LocalDateTime paidAt) { this.paidAt = paidAt; }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.meditracker.controller.dto;
+
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class VisitPaymentRequest {
+    @NotBlank
+    private String rfidUid;
+    @NotNull
+    private Long visitId;
+
+    public String getRfidUid() { return rfidUid; }
+    public void setRfidUid(String rfidUid) { this.rfidUid = rfidUid; }
+    public Long getVisitId() { return visitId; }
+    public void setVisitId(Long visitId) { this.visitId = visitId; }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.meditracker.controller.dto;
+
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.VisitStatus;
+import java.time.LocalDateTime;
+
+public class VisitResponse {
+    private Long id;
+    private Long patientId;
+    private Long doctorId;
+    private Department department;
+    private VisitStatus status;
+    private Double temperatureCelsius;
+    private Integer bpSystolic;
+    private Integer bpDiastolic;
+    private Integer heartRate;
+    private String diagnosis;
+    private String medications;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public VisitResponse() {}
+
+    public static VisitResponse fromVisit(Visit visit) {
+        VisitResponse dto = new VisitResponse();
+        dto.setId(visit.getId());
+        dto.setPatientId(visit.getPatient().getId());
+        dto.setDoctorId(visit.getDoctor().getId());
+        dto.setDepartment(visit.getDepartment());
+        dto.setStatus(visit.getStatus());
+        dto.setTemperatureCelsius(visit.getTemperatureCelsius());
+        dto.setBpSystolic(visit.getBpSystolic());
+        dto.setBpDiastolic(visit.getBpDiastolic());
+        dto.setHeartRate(visit.getHeartRate());
+        dto.setDiagnosis(visit.getDiagnosis());
+        dto.setMedications(visit.getMedications());
+        dto.setCreatedAt(visit.getCreatedAt());
+        dto.setUpdatedAt(visit.getUpdatedAt());
+        return dto;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getPatientId() { return patientId; }
+    public void setPatientId(Long patientId) { this.patientId = patientId; }
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+    public Department getDepartment() { return department; }
+    public void setDepartment(Department department) { this.department = department; }
+    public VisitStatus getStatus() { return status; }
+    public void setStatus(VisitStatus status) { this.status = status; }
+    public Double getTemperatureCelsius() { return temperatureCelsius; }
+    public void setTemperatureCelsius(Double temperatureCelsius) { this.temperatureCelsius = temperatureCelsius; }
+    public Integer getBpSystolic() { return bpSystolic; }
+    public void setBpSystolic(Integer bpSystolic) { this.bpSystolic = bpSystolic; }
+    public Integer getBpDiastolic() { return bpDiastolic; }
+    public void setBpDiastolic(Integer bpDiastolic) { this.bpDiastolic = bpDiastolic; }
+    public Integer getHeartRate() { return heartRate; }
+    public void setHeartRate(Integer heartRate) { this.heartRate = heartRate; }
+    public String getDiagnosis() { return diagnosis; }
+    public void setDiagnosis(String diagnosis) { this.diagnosis = diagnosis; }
+    public String getMedications() { return medications; }
+    public void setMedications(String medications) { this.medications = medications; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,46 @@
+package com.meditracker.controller.dto;
+
+import com.meditracker.domain.Money;
+import com.meditracker.domain.Wallet;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class WalletResponse {
+    private Long id;
+    private Long patientId;
+    private BigDecimal balance;
+    private boolean active;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public WalletResponse() {}
+
+    public static WalletResponse fromWallet(Wallet wallet) {
+        return fromWallet(wallet, wallet.getBalance());
+    }
+
+    /** For a wallet whose loaded balance predates a movement of the same transaction. */
+    public static WalletResponse fromWallet(Wallet wallet, Money balance) {
+        WalletResponse dto = new WalletResponse();
+        dto.setId(wallet.getId());
+        dto.setPatientId(wallet.getPatient().getId());
+        dto.setBalance(balance.toBigDecimal());
+        dto.setActive(wallet.isActive());
+        dto.setCreatedAt(wallet.getCreatedAt());
+        dto.setUpdatedAt(wallet.getUpdatedAt());
+        return dto;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getPatientId() { return patientId; }
+    public void setPatientId(Long patientId) { this.patientId = patientId; }
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,33 @@
+package com.meditracker.controller.support;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for bodies that are expensive to build. The ETag is taken before the body
+ * is built and a matching {@code If-None-Match} is answered with 304 without building it. A
+ * write landing in between can only leave the ETag older than the body, which costs the
+ * client one more full response on its next request, never a stale one.
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    public static <T> ResponseEntity<T> respond(WebRequest request, Optional<String> etag, Supplier<T> body) {
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag.get())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        etag.ifPresent(ok::eTag);
+        return ok.body(body.get());
+    }
+}
@@ -0,0 +1,76 @@
+package com.meditracker.controller.support;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset (seek) pagination over monotonically increasing ids. The response body stays a
+ * plain JSON array; the opaque token for the next page travels in the {@code X-Next-Cursor}
+ * header and is absent on the last page.
+ */
+public final class KeysetCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String PREFIX = "id:";
+
+    private KeysetCursor() {
+    }
+
+    /** Returns the id to seek after; {@code 0} for the first page. */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int pageSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    /** One extra row is fetched so the last page can be detected without a count query. */
+    public static Limit fetchLimit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    public static <E, T> ResponseEntity<List<T>> page(List<E> rows, int pageSize,
+                                                      Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        List<T> body = pageRows.stream().map(mapper).collect(Collectors.toList());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasMore) {
+            response.header(NEXT_CURSOR_HEADER, encode(idOf.apply(pageRows.get(pageRows.size() - 1))));
+        }
+        return response.body(body);
+    }
+}
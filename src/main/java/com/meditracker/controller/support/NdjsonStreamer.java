@@ -0,0 +1,70 @@
+package com.meditracker.controller.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a repository {@link Stream} as newline-delimited JSON. Rows are serialized one at a
+ * time inside a read-only transaction and the persistence context is cleared every
+ * {@link #CLEAR_INTERVAL} rows, so memory stays flat regardless of table size.
+ */
+@Component
+public class NdjsonStreamer {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /** Matches the fetch size hint on the streaming repository queries. */
+    public static final int CLEAR_INTERVAL = 500;
+
+    private final ObjectWriter writer;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public NdjsonStreamer(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.writer = objectMapper.writer();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public <E> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<E>> query, Function<E, ?> mapper) {
+        StreamingResponseBody body = out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<E> rows = query.get()) {
+                write(rows.iterator(), mapper, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    private <E> void write(Iterator<E> rows, Function<E, ?> mapper, OutputStream out) throws IOException {
+        int written = 0;
+        while (rows.hasNext()) {
+            out.write(writer.writeValueAsBytes(mapper.apply(rows.next())));
+            out.write('\n');
+            if (++written % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,109 @@
+package com.meditracker.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-your-writes for replica routing. Write paths record the patient (and visit) they
+ * changed once the transaction commits; for {@code replica-lag-window} afterwards, read-only
+ * transactions that declare they read that patient or visit are pinned to the primary.
+ * <p>
+ * A read must call {@link #readingPatient} / {@link #readingVisit} before its first
+ * statement, because the routing decision is made when the transaction first needs a
+ * connection. A read that has to query before it knows the patient, such as an RFID lookup
+ * that misses the cache, calls {@link #readingUnresolved} instead. Without replicas
+ * configured the pin is recorded but has no effect.
+ */
+@Component
+public class ReplicaLagGuard {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    // key -> System.nanoTime() until which reads must go to the primary
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    public ReplicaLagGuard(@Value("${meditracker.datasource.replica-lag-window:PT2S}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /** Records a write to the patient and, if not null, one of their visits. */
+    public void recordWrite(Long patientId, Long visitId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markWritten(patientId, visitId);
+                }
+            });
+        } else {
+            markWritten(patientId, visitId);
+        }
+    }
+
+    public void readingPatient(Long patientId) {
+        pinIfRecent(patientKey(patientId));
+    }
+
+    public void readingVisit(Long visitId) {
+        pinIfRecent(visitKey(visitId));
+    }
+
+    /** Pins the current transaction to the primary; for a lookup of a not yet known patient. */
+    public void readingUnresolved() {
+        pin();
+    }
+
+    static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    private void markWritten(Long patientId, Long visitId) {
+        long until = System.nanoTime() + windowNanos;
+        if (patientId != null) {
+            recentWrites.put(patientKey(patientId), until);
+        }
+        if (visitId != null) {
+            recentWrites.put(visitKey(visitId), until);
+        }
+        if (recentWrites.size() > CLEANUP_THRESHOLD) {
+            long now = System.nanoTime();
+            recentWrites.values().removeIf(expiry -> expiry - now < 0);
+        }
+    }
+
+    private void pinIfRecent(String key) {
+        Long until = recentWrites.get(key);
+        if (until != null && until - System.nanoTime() >= 0) {
+            pin();
+        }
+    }
+
+    private void pin() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || isPinnedToPrimary()) {
+            return;
+        }
+        PINNED.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PINNED.remove();
+            }
+        });
+    }
+
+    private static String patientKey(Long patientId) {
+        return "p:" + patientId;
+    }
+
+    private static String visitKey(Long visitId) {
+        return "v:" + visitId;
+    }
+}
\ No newline at end of file
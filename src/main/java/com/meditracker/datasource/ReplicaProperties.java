@@ -0,0 +1,32 @@
+package com.meditracker.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** {@code meditracker.datasource.replicas}: read replicas; username and password default to the primary's. */
+@ConfigurationProperties("meditracker.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    public List<Replica> getReplicas() { return replicas; }
+    public void setReplicas(List<Replica> replicas) { this.replicas = replicas; }
+
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+        public int getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.meditracker.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas, round robin, and everything else to the
+ * primary. Reads pinned by {@link ReplicaLagGuard} also go to the primary, as does a read
+ * whose replica cannot hand out a connection.
+ * <p>
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}: the transaction manager opens
+ * the connection before it marks the transaction read-only, and the lazy proxy defers the
+ * routing decision to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReplicaLagGuard.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        DataSource target = key == PRIMARY ? primary : getResolvedDataSources().get(key);
+        if (target == primary) {
+            return primary.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            log.warn("Replica {} unavailable, reading from primary: {}", key, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        // The primary pool is a bean of its own; the replica pools are owned here
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,15 +1,14 @@
 package com.meditracker.domain;
 import com.fasterxml.jackson.annotation.JsonBackReference;
-import com.meditracker.domain.base.Auditable;
+import com.meditracker.domain.base.VersionedAuditable;
 import com.meditracker.domain.enums.BillingStatus;
 import com.meditracker.domain.enums.BillingType;
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "billing")
-public class Billing extends Auditable {
+public class Billing extends VersionedAuditable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,7 +26,7 @@ public class Billing extends Auditable {
     private String itemDescription;
 
     @Column(nullable = false, precision = 12, scale = 2)
-    private BigDecimal amount = BigDecimal.ZERO;
+    private Money amount = Money.ZERO;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
@@ -43,8 +42,8 @@ public class Billing extends Auditable {
     public void setType(BillingType type) { this.type = type; }
     public String getItemDescription() { return itemDescription; }
     public void setItemDescription(String itemDescription) { this.itemDescription = itemDescription; }
-    public BigDecimal getAmount() { return amount; }
-    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
     public BillingStatus getStatus() { return status; }
     public void setStatus(BillingStatus status) { this.status = status; }
     public LocalDateTime getPaidAt() { return paidAt; }
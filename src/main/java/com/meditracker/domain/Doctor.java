@@ -1,13 +1,16 @@
 package com.meditracker.domain;
 
-import com.meditracker.domain.base.Auditable;
+import com.meditracker.domain.base.VersionedAuditable;
 import com.meditracker.domain.enums.Department;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "doctors")
-public class Doctor extends Auditable {
+public class Doctor extends VersionedAuditable {
+
+    /** Charged when a doctor is created without a fee, and for doctors whose fee is unset. */
+    public static final Money DEFAULT_CONSULTATION_FEE = Money.of(new BigDecimal("300.00"));
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,7 +30,7 @@ public class Doctor extends Auditable {
     private String floor;
 
     @Column(nullable = false, precision = 12, scale = 2)
-    private BigDecimal consultationFee = BigDecimal.valueOf(300.00);
+    private Money consultationFee = DEFAULT_CONSULTATION_FEE;
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -39,6 +42,6 @@ public class Doctor extends Auditable {
     public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
     public String getFloor() { return floor; }
     public void setFloor(String floor) { this.floor = floor; }
-    public BigDecimal getConsultationFee() { return consultationFee; }
-    public void setConsultationFee(BigDecimal consultationFee) { this.consultationFee = consultationFee; }
+    public Money getConsultationFee() { return consultationFee; }
+    public void setConsultationFee(Money consultationFee) { this.consultationFee = consultationFee; }
 }
\ No newline at end of file
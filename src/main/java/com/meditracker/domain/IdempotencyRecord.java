@@ -0,0 +1,68 @@
+package com.meditracker.domain;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+/**
+ * A completed write replayed for retries that carry the same {@code Idempotency-Key}. The id
+ * is a hash of key, method and path, stored with a hash of the request body; rows are
+ * insert-only and purged after the store's TTL.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idem_created", columnList = "createdAt"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    // SHA-256 of the request body that first used the key
+    @Column(length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private int statusCode;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Lob
+    @Column(length = 1_048_576)
+    private byte[] body;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Ids are assigned, so without this save() would select before every insert
+    @Transient
+    private boolean isNew = true;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getRequestHash() { return requestHash; }
+    public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+    public int getStatusCode() { return statusCode; }
+    public void setStatusCode(int statusCode) { this.statusCode = statusCode; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public byte[] getBody() { return body; }
+    public void setBody(byte[] body) { this.body = body; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+}
\ No newline at end of file
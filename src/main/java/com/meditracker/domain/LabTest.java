@@ -1,14 +1,16 @@
 package com.meditracker.domain;
 import com.fasterxml.jackson.annotation.JsonBackReference;
-import com.meditracker.domain.base.Auditable;
+import com.meditracker.domain.base.VersionedAuditable;
 import com.meditracker.domain.enums.LabTestStatus;
 import jakarta.persistence.*;
-import java.math.BigDecimal;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "lab_tests")
-public class LabTest extends Auditable {
+@Table(name = "lab_tests", indexes = {
+        @Index(name = "idx_labtests_status", columnList = "status")
+})
+public class LabTest extends VersionedAuditable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,13 +28,21 @@ public class LabTest extends Auditable {
     private LabTestStatus status = LabTestStatus.ORDERED;
 
     @Column(nullable = false, precision = 12, scale = 2)
-    private BigDecimal price = BigDecimal.ZERO;
+    private Money price = Money.ZERO;
 
     @Column(length = 2048)
     private String resultText;
 
     private LocalDateTime completedAt;
 
+    // Urgent tests jump the lab worklist
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean urgent;
+
+    @Column(length = 80)
+    private String claimedBy;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public Visit getVisit() { return visit; }
@@ -41,10 +51,14 @@ public class LabTest extends Auditable {
     public void setTestName(String testName) { this.testName = testName; }
     public LabTestStatus getStatus() { return status; }
     public void setStatus(LabTestStatus status) { this.status = status; }
-    public BigDecimal getPrice() { return price; }
-    public void setPrice(BigDecimal price) { this.price = price; }
+    public Money getPrice() { return price; }
+    public void setPrice(Money price) { this.price = price; }
     public String getResultText() { return resultText; }
     public void setResultText(String resultText) { this.resultText = resultText; }
     public LocalDateTime getCompletedAt() { return completedAt; }
     public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+    public boolean isUrgent() { return urgent; }
+    public void setUrgent(boolean urgent) { this.urgent = urgent; }
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
 }
\ No newline at end of file
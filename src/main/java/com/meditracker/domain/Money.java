@@ -0,0 +1,62 @@
+package com.meditracker.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount in rupees held as a whole number of paise. Billing, wallet and summary
+ * arithmetic works on the long directly; {@link BigDecimal} only appears where an amount
+ * crosses into JSON or the database (see {@link MoneyConverter}).
+ */
+public record Money(long minor) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    /** @throws IllegalArgumentException if the amount has fractions of a paisa */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofMinor(amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount.toPlainString());
+        }
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minor, other.minor));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minor));
+    }
+
+    public boolean isZero() {
+        return minor == 0;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, 2);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
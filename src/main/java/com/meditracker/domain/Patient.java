@@ -1,11 +1,13 @@
 package com.meditracker.domain;
-import com.meditracker.domain.base.Auditable;
+import com.meditracker.cache.PatientCacheListener;
+import com.meditracker.domain.base.VersionedAuditable;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "patients")
-public class Patient extends Auditable {
+@EntityListeners(PatientCacheListener.class)
+public class Patient extends VersionedAuditable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
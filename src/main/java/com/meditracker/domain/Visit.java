@@ -1,13 +1,16 @@
 package com.meditracker.domain;
 import com.fasterxml.jackson.annotation.JsonBackReference;
-import com.meditracker.domain.base.Auditable;
+import com.meditracker.domain.base.VersionedAuditable;
 import com.meditracker.domain.enums.Department;
 import com.meditracker.domain.enums.VisitStatus;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "visits")
-public class Visit extends Auditable {
+@Table(name = "visits", indexes = {
+        @Index(name = "idx_visits_status_dept_created", columnList = "status, department, created_at"),
+        @Index(name = "idx_visits_status_id", columnList = "status, id")
+})
+public class Visit extends VersionedAuditable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,56 @@
+package com.meditracker.domain;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+/**
+ * The summary of a completed visit as served to the patient portal, stored as JSON when the
+ * visit is discharged. Deleted whenever the visit or its patient changes afterwards.
+ */
+@Entity
+@Table(name = "visit_summaries", indexes = @Index(name = "idx_visit_summaries_patient", columnList = "patientId"))
+public class VisitSummaryRecord implements Persistable<Long> {
+
+    @Id
+    private Long visitId;
+
+    @Column(nullable = false)
+    private Long patientId;
+
+    @Lob
+    @Column(nullable = false, length = 1_048_576)
+    private String summaryJson;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Ids are assigned, so without this save() would select before every insert
+    @Transient
+    private boolean isNew = true;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public Long getId() { return visitId; }
+    public Long getVisitId() { return visitId; }
+    public void setVisitId(Long visitId) { this.visitId = visitId; }
+    public Long getPatientId() { return patientId; }
+    public void setPatientId(Long patientId) { this.patientId = patientId; }
+    public String getSummaryJson() { return summaryJson; }
+    public void setSummaryJson(String summaryJson) { this.summaryJson = summaryJson; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+}
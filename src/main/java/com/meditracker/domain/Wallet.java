@@ -1,9 +1,16 @@
 package com.meditracker.domain;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.meditracker.domain.base.Auditable;
 import jakarta.persistence.*;
-import java.math.BigDecimal;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
 
+/**
+ * A patient wallet. The row holds a balance snapshot covering the ledger rows up to
+ * {@code snapshotSeq}; only the snapshot compactor writes it. The current balance is the
+ * snapshot plus the later wallet_transactions rows, derived in the same SELECT.
+ */
 @Entity
 @Table(name = "wallets")
 public class Wallet extends Auditable {
@@ -17,8 +24,16 @@ public class Wallet extends Auditable {
     @JsonBackReference("patient-wallet")
     private Patient patient;
 
-    @Column(nullable = false, precision = 14, scale = 2)
-    private BigDecimal balance = BigDecimal.ZERO;
+    @Column(name = "balance", nullable = false, precision = 14, scale = 2)
+    private Money snapshotBalance = Money.ZERO;
+
+    @Column(name = "snapshot_seq", nullable = false)
+    @ColumnDefault("0")
+    private long snapshotSeq;
+
+    @Formula("balance + coalesce((select sum(case when t.txn_type = 'DEBIT' then -t.amount else t.amount end) " +
+             "from wallet_transactions t where t.wallet_id = id and t.seq > snapshot_seq), 0)")
+    private Money balance = Money.ZERO;
 
     @Column(nullable = false)
     private boolean active = true;
@@ -27,8 +42,13 @@ public class Wallet extends Auditable {
     public void setId(Long id) { this.id = id; }
     public Patient getPatient() { return patient; }
     public void setPatient(Patient patient) { this.patient = patient; }
-    public BigDecimal getBalance() { return balance; }
-    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    @JsonIgnore
+    public Money getSnapshotBalance() { return snapshotBalance; }
+    public void setSnapshotBalance(Money snapshotBalance) { this.snapshotBalance = snapshotBalance; }
+    @JsonIgnore
+    public long getSnapshotSeq() { return snapshotSeq; }
+    public void setSnapshotSeq(long snapshotSeq) { this.snapshotSeq = snapshotSeq; }
+    public Money getBalance() { return balance; }
     public boolean isActive() { return active; }
     public void setActive(boolean active) { this.active = active; }
 }
\ No newline at end of file
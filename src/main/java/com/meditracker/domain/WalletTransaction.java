@@ -0,0 +1,73 @@
+package com.meditracker.domain;
+import com.meditracker.domain.enums.WalletTransactionType;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One money movement on a wallet. Rows are insert-only, so this entity does not extend
+ * Auditable: the table has no updated_at column. {@code seq} numbers the rows of one wallet
+ * without gaps; the wallet's balance snapshot records the last seq it covers.
+ */
+@Entity
+@Table(name = "wallet_transactions", indexes = {
+        @Index(name = "idx_wtxn_billing", columnList = "billing_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_wtxn_wallet_seq", columnNames = {"wallet_id", "seq"})
+})
+public class WalletTransaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "wallet_id", nullable = false)
+    private Wallet wallet;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "billing_id")
+    private Billing billing;
+
+    @Column(nullable = false, updatable = false)
+    private long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "txn_type", nullable = false, length = 10)
+    private WalletTransactionType type;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private Money amount;
+
+    @Column(length = 255)
+    private String description;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /** The amount in paise as it moves the balance: negative for debits. */
+    public long signedMinor() {
+        return type == WalletTransactionType.DEBIT ? -amount.minor() : amount.minor();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Wallet getWallet() { return wallet; }
+    public void setWallet(Wallet wallet) { this.wallet = wallet; }
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+    public Billing getBilling() { return billing; }
+    public void setBilling(Billing billing) { this.billing = billing; }
+    public WalletTransactionType getType() { return type; }
+    public void setType(WalletTransactionType type) { this.type = type; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
\ No newline at end of file
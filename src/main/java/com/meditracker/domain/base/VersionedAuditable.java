@@ -0,0 +1,22 @@
+package com.meditracker.domain.base;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Auditable row with an optimistic-lock version. Every update increments it in the writing
+ * transaction, so unlike {@code updated_at} it changes on each committed write whatever the
+ * clocks say; {@code ResponseEtags} builds its tags from it.
+ */
+@MappedSuperclass
+public abstract class VersionedAuditable extends Auditable {
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    public long getVersion() { return version; }
+}
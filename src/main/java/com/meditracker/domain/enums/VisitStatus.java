@@ -1,5 +1,8 @@
 package com.meditracker.domain.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum VisitStatus {
     REGISTERED,
     VITALS,
@@ -8,5 +11,10 @@ public enum VisitStatus {
     LAB_IN_PROGRESS,
     LAB_COMPLETED,
     BILLING_PENDING,
-    COMPLETED
+    COMPLETED;
+
+    /** Every status a patient can be in while still in the building. */
+    public static Set<VisitStatus> active() {
+        return EnumSet.complementOf(EnumSet.of(COMPLETED));
+    }
 }
\ No newline at end of file
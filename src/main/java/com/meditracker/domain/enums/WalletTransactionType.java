@@ -0,0 +1,6 @@
+package com.meditracker.domain.enums;
+
+public enum WalletTransactionType {
+    DEBIT,
+    CREDIT
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.meditracker.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditracker.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Honors the {@code Idempotency-Key} header on the visit, lab, billing and wallet write
+ * endpoints. The first request with a key runs normally and, if it succeeds, its response is
+ * kept in the {@link IdempotencyStore}; retries with the same key, method and path get that
+ * response back with {@code Idempotent-Replayed: true} instead of writing again. Failed
+ * requests are not stored, so a retry after e.g. a top-up runs for real. A key reused with a
+ * different body is rejected with 422, since replaying would answer a request that never ran.
+ * <p>
+ * The body is read up front to hash it and handed on through a wrapper that reads it again.
+ * Only {@code meditracker.idempotency.max-body-size} bytes are ever buffered; a larger body,
+ * declared or streamed, is rejected with 413.
+ */
+@Component
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final List<String> GUARDED_PREFIXES = List.of("/api/visits/", "/api/lab/", "/api/billing/", "/api/wallet/");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final int maxBodySize;
+
+    public IdempotencyKeyFilter(IdempotencyStore store, ObjectMapper objectMapper,
+                                @Value("${meditracker.idempotency.max-body-size:64KB}") DataSize maxBodySize) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.maxBodySize = Math.toIntExact(maxBodySize.toBytes());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getContentLengthLong() > maxBodySize
+                ? null : request.getInputStream().readNBytes(maxBodySize + 1);
+        if (body == null || body.length > maxBodySize) {
+            writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Request bodies sent with an " + IDEMPOTENCY_KEY_HEADER + " are limited to " + maxBodySize + " bytes");
+            return;
+        }
+        CachedBodyRequest cached = new CachedBodyRequest(request, body);
+        String scope = key + ' ' + request.getMethod() + ' ' + request.getRequestURI();
+        StoredResponse stored;
+        try {
+            stored = store.claim(scope, IdempotencyStore.bodyHash(cached.body));
+        } catch (IdempotencyKeyReusedException e) {
+            writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+            return;
+        } catch (IllegalStateException e) {
+            writeError(request, response, HttpStatus.CONFLICT, e.getMessage());
+            return;
+        }
+        if (stored != null) {
+            replay(stored, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            chain.doFilter(cached, captured);
+            int status = captured.getStatus();
+            if (status >= 200 && status < 300) {
+                store.complete(scope, new StoredResponse(status, captured.getContentType(),
+                        captured.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                store.release(scope);
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response,
+                            HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), status.getReasonPhrase(), message, request.getRequestURI()));
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() { return in.read(); }
+                @Override
+                public int read(byte[] b, int off, int len) { return in.read(b, off, len); }
+                @Override
+                public boolean isFinished() { return in.available() == 0; }
+                @Override
+                public boolean isReady() { return true; }
+                @Override
+                public void setReadListener(ReadListener listener) { throw new UnsupportedOperationException(); }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String uri = request.getRequestURI();
+        return GUARDED_PREFIXES.stream().noneMatch(uri::startsWith);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.meditracker.idempotency;
+
+/** An {@code Idempotency-Key} was sent again with a different request body. */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException() {
+        super("This Idempotency-Key was already used with a different request body");
+    }
+}
@@ -0,0 +1,201 @@
+package com.meditracker.idempotency;
+
+import com.meditracker.domain.IdempotencyRecord;
+import com.meditracker.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded TTL + LRU map from an idempotency scope (key, method and path) to the response of
+ * the write that first used it. A scope is claimed while its request runs, so a retry that
+ * arrives before the original finished is rejected instead of executed twice. Claims are
+ * held apart from the completed responses and are never evicted; only completed or expired
+ * entries make room.
+ * <p>
+ * Each scope remembers the SHA-256 of the request body that first used it. Reusing the key
+ * with a different body is an {@link IdempotencyKeyReusedException}, not a replay.
+ * <p>
+ * With {@code meditracker.idempotency.persist} completed responses are also written to
+ * {@code idempotency_keys}, so replays survive a restart and are shared between instances.
+ * Claims of in-flight requests stay local to the instance.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final int PURGE_EVERY = 1000;
+
+    private final IdempotencyRecordRepository repository;
+    private final int maxSize;
+    private final Duration ttl;
+    private final boolean persist;
+
+    private final LinkedHashMap<String, Entry> entries;
+    // Scope -> body hash of the request currently running it; guarded by entries
+    private final Map<String, String> inFlight = new HashMap<>();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder completedSincePurge = new LongAdder();
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            @Value("${meditracker.idempotency.max-size:10000}") int maxSize,
+                            @Value("${meditracker.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${meditracker.idempotency.persist:false}") boolean persist) {
+        this.repository = repository;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.persist = persist;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > IdempotencyStore.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Claims the scope for the calling request. Returns the stored response when the scope
+     * already completed, or null when the caller now owns it and must {@link #complete} or
+     * {@link #release} it.
+     *
+     * @throws IdempotencyKeyReusedException if the scope was used with a different body
+     * @throws IllegalStateException if another request with the same scope is still running
+     */
+    public StoredResponse claim(String scope, String bodyHash) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            String running = inFlight.get(scope);
+            if (running != null) {
+                checkSameBody(running, bodyHash);
+                throw new IllegalStateException("A request with this Idempotency-Key is still being processed");
+            }
+            Entry entry = entries.get(scope);
+            if (entry != null && !entry.isExpired(now)) {
+                checkSameBody(entry.bodyHash, bodyHash);
+                replays.increment();
+                return entry.response;
+            }
+            inFlight.put(scope, bodyHash);
+        }
+
+        Entry persisted;
+        try {
+            persisted = persist ? loadPersisted(scope) : null;
+        } catch (RuntimeException e) {
+            // The caller never got the claim, so nobody else would release it
+            release(scope);
+            throw e;
+        }
+        if (persisted == null) {
+            return null;
+        }
+        synchronized (entries) {
+            inFlight.remove(scope);
+            entries.put(scope, persisted);
+        }
+        checkSameBody(persisted.bodyHash, bodyHash);
+        replays.increment();
+        return persisted.response;
+    }
+
+    public void complete(String scope, StoredResponse response) {
+        String bodyHash;
+        synchronized (entries) {
+            bodyHash = inFlight.remove(scope);
+            entries.put(scope, new Entry(response, bodyHash, System.nanoTime() + ttl.toNanos()));
+        }
+        if (persist) {
+            persist(scope, bodyHash, response);
+        }
+    }
+
+    /** Frees a claimed scope whose request failed, so a retry runs it again. */
+    public void release(String scope) {
+        synchronized (entries) {
+            inFlight.remove(scope);
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size() + inFlight.size();
+        }
+        return new Stats(size, maxSize, replays.sum());
+    }
+
+    /** SHA-256 of a request body, as passed to {@link #claim}. */
+    public static String bodyHash(byte[] body) {
+        return HexFormat.of().formatHex(sha256(body));
+    }
+
+    private static void checkSameBody(String storedHash, String bodyHash) {
+        // Rows persisted before bodies were hashed carry none and match any body
+        if (storedHash != null && !storedHash.equals(bodyHash)) {
+            throw new IdempotencyKeyReusedException();
+        }
+    }
+
+    private Entry loadPersisted(String scope) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        return repository.findById(hash(scope))
+                .filter(record -> record.getCreatedAt().isAfter(cutoff))
+                .map(record -> new Entry(
+                        new StoredResponse(record.getStatusCode(), record.getContentType(), record.getBody()),
+                        record.getRequestHash(), System.nanoTime() + ttl.toNanos()))
+                .orElse(null);
+    }
+
+    private void persist(String scope, String bodyHash, StoredResponse response) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(hash(scope));
+        record.setRequestHash(bodyHash);
+        record.setStatusCode(response.status());
+        record.setContentType(response.contentType());
+        record.setBody(response.body());
+        try {
+            repository.save(record);
+            completedSincePurge.increment();
+            if (completedSincePurge.sum() >= PURGE_EVERY) {
+                completedSincePurge.reset();
+                repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+            }
+        } catch (Exception e) {
+            // The write itself succeeded; losing the durable copy only narrows the replay to this instance
+            log.warn("Could not persist idempotency record: {}", e.getMessage());
+        }
+    }
+
+    private static String hash(String scope) {
+        return HexFormat.of().formatHex(sha256(scope.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(StoredResponse response, String bodyHash, long expiresAtNanos) {
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos > 0;
+        }
+    }
+
+    public record Stats(int size, int maxSize, long replays) {
+    }
+}
\ No newline at end of file
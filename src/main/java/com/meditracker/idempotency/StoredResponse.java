@@ -0,0 +1,5 @@
+package com.meditracker.idempotency;
+
+/** Status, content type and body of a completed write, replayed verbatim on retry. */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
\ No newline at end of file
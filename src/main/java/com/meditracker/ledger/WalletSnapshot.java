@@ -0,0 +1,7 @@
+package com.meditracker.ledger;
+
+import com.meditracker.domain.Money;
+
+/** The balance snapshot stored on a wallet row: the balance through ledger row {@code throughSeq}. */
+public record WalletSnapshot(Money balance, long throughSeq, boolean active) {
+}
@@ -0,0 +1,150 @@
+package com.meditracker.ledger;
+
+import com.meditracker.domain.Money;
+import com.meditracker.domain.WalletTransaction;
+import com.meditracker.repository.WalletRepository;
+import com.meditracker.repository.WalletTransactionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rolls wallet balance snapshots forward in the background. Once a wallet has
+ * {@code compact-after} ledger rows past its snapshot it is queued, and the next pass folds
+ * those rows into the snapshot, so a balance read never sums more than a handful of rows.
+ * <p>
+ * This is the only writer of the wallet row. It takes the same wallet lock as ledger
+ * appends, so a snapshot never skips a row that is still being written.
+ */
+@Component
+public class WalletSnapshotCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletSnapshotCompactor.class);
+
+    private final WalletRepository walletRepository;
+    private final WalletTransactionRepository walletTransactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int compactAfter;
+    private final long intervalMillis;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final LongAdder compactions = new LongAdder();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "wallet-snapshot-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WalletSnapshotCompactor(WalletRepository walletRepository,
+                                   WalletTransactionRepository walletTransactionRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${meditracker.wallet-ledger.compact-after:16}") int compactAfter,
+                                   @Value("${meditracker.wallet-ledger.compact-interval:PT5S}") Duration interval) {
+        this.walletRepository = walletRepository;
+        this.walletTransactionRepository = walletTransactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.compactAfter = compactAfter;
+        this.intervalMillis = interval.toMillis();
+    }
+
+    /** Picks up wallets left with a long tail of rows by the previous run, then starts the passes. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        pending.addAll(walletTransactionRepository.findWalletIdsWithUncompactedRows(compactAfter));
+        scheduler.scheduleWithFixedDelay(this::compactPending, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Called by the ledger with the wallet's row count past its snapshot, including the rows
+     * just appended; queues the wallet once its transaction commits if the tail is long enough.
+     */
+    public void appended(Long walletId, int rowsSinceSnapshot) {
+        if (rowsSinceSnapshot < compactAfter) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.add(walletId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pending.add(walletId);
+            }
+        });
+    }
+
+    /** Compacts every queued wallet; a wallet that fails stays queued for the next pass. */
+    public int compactPending() {
+        int compacted = 0;
+        for (Long walletId : List.copyOf(pending)) {
+            pending.remove(walletId);
+            try {
+                if (compact(walletId)) {
+                    compacted++;
+                }
+            } catch (RuntimeException e) {
+                pending.add(walletId);
+                log.warn("Could not compact wallet {}: {}", walletId, e.getMessage());
+            }
+        }
+        return compacted;
+    }
+
+    /** Folds every ledger row past the wallet's snapshot into it. */
+    public boolean compact(Long walletId) {
+        Boolean rolled = transactionTemplate.execute(status -> {
+            Optional<WalletSnapshot> snapshot = walletRepository.lockSnapshot(walletId);
+            if (snapshot.isEmpty()) {
+                return false;
+            }
+            List<WalletTransaction> rows = walletTransactionRepository
+                    .findAfterSeqForShare(walletId, snapshot.get().throughSeq());
+            if (rows.isEmpty()) {
+                return false;
+            }
+            long balance = snapshot.get().balance().minor();
+            for (WalletTransaction row : rows) {
+                balance += row.signedMinor();
+            }
+            long throughSeq = rows.get(rows.size() - 1).getSeq();
+            return walletRepository.rollSnapshot(walletId, Money.ofMinor(balance), throughSeq, LocalDateTime.now()) == 1;
+        });
+        if (Boolean.TRUE.equals(rolled)) {
+            compactions.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public Stats stats() {
+        return new Stats(pending.size(), compactions.sum());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public record Stats(int pending, long compactions) {
+    }
+}
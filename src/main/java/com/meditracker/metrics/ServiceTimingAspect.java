@@ -0,0 +1,63 @@
+package com.meditracker.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public method of the beans in {@code com.meditracker.service} as
+ * {@code meditracker.service} tagged with service, method and outcome. Runs outside the
+ * transaction advice so the recorded time includes the commit. Timers are built once per
+ * service, method and outcome and reused, so a call only pays for a map lookup.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceTimingAspect {
+
+    static final String METRIC = "meditracker.service";
+
+    private final MeterRegistry registry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public ServiceTimingAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.meditracker.service..*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Signature signature = joinPoint.getSignature();
+            sample.stop(timers.computeIfAbsent(
+                    new TimerKey(signature.getDeclaringType(), signature.getName(), outcome), this::register));
+        }
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder(METRIC)
+                .tag("service", key.service().getSimpleName())
+                .tag("method", key.method())
+                .tag("outcome", key.outcome())
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private record TimerKey(Class<?> service, String method, String outcome) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.meditracker.metrics;
+
+/**
+ * SQL executed on behalf of one HTTP request. Only touched by the request thread, so the
+ * fields need no synchronization.
+ */
+public class SqlTrace {
+
+    private int statements;
+    private long totalNanos;
+    private long slowestNanos;
+    private String slowestSql;
+
+    void record(String sql, long nanos) {
+        statements++;
+        totalNanos += nanos;
+        if (nanos > slowestNanos) {
+            slowestNanos = nanos;
+            slowestSql = sql;
+        }
+    }
+
+    public int getStatements() { return statements; }
+    public double getTotalMillis() { return totalNanos / 1_000_000.0; }
+    public long getTotalNanos() { return totalNanos; }
+    public double getSlowestMillis() { return slowestNanos / 1_000_000.0; }
+    public String getSlowestSql() { return slowestSql; }
+}
@@ -0,0 +1,159 @@
+package com.meditracker.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attaches the SQL executed by each request to the response ({@code X-SQL-Count} and a
+ * {@code Server-Timing} db entry), to a one-line {@code sql-trace} log record and to the
+ * {@code meditracker.http.sql.*} meters, tagged with the matched route.
+ * <p>
+ * Headers are added just before the body is first written, which for the JSON endpoints
+ * is after the service call has committed; statements issued while streaming a body only
+ * show up in the log and meters. The meters are built once per method and route and reused.
+ */
+@Component
+public class SqlTraceFilter extends OncePerRequestFilter {
+
+    public static final String SQL_COUNT_HEADER = "X-SQL-Count";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final Logger traceLog = LoggerFactory.getLogger("meditracker.sql-trace");
+
+    private final SqlTracer sqlTracer;
+    private final MeterRegistry registry;
+    private final Map<RouteKey, RouteMeters> meters = new ConcurrentHashMap<>();
+
+    public SqlTraceFilter(SqlTracer sqlTracer, MeterRegistry registry) {
+        this.sqlTracer = sqlTracer;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        SqlTrace trace = sqlTracer.begin();
+        TraceHeaderResponse tracedResponse = new TraceHeaderResponse(response, trace);
+        try {
+            chain.doFilter(request, tracedResponse);
+        } finally {
+            sqlTracer.end();
+            tracedResponse.addTraceHeaders();
+            record(request, response, trace);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, SqlTrace trace) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = route != null ? route.toString() : "UNKNOWN";
+        RouteMeters routeMeters = meters.computeIfAbsent(new RouteKey(request.getMethod(), uri), this::register);
+        routeMeters.statements().record(trace.getStatements());
+        routeMeters.time().record(trace.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        if (traceLog.isInfoEnabled()) {
+            traceLog.info("sql-trace method={} uri={} status={} statements={} jdbcMs={} slowestMs={} slowest=\"{}\"",
+                    request.getMethod(), uri, response.getStatus(), trace.getStatements(),
+                    format(trace.getTotalMillis()), format(trace.getSlowestMillis()),
+                    trace.getSlowestSql() != null ? trace.getSlowestSql() : "");
+        }
+    }
+
+    private RouteMeters register(RouteKey key) {
+        DistributionSummary statements = DistributionSummary.builder("meditracker.http.sql.statements")
+                .baseUnit("statements")
+                .tag("method", key.method())
+                .tag("uri", key.uri())
+                .register(registry);
+        Timer time = Timer.builder("meditracker.http.sql.time")
+                .tag("method", key.method())
+                .tag("uri", key.uri())
+                .register(registry);
+        return new RouteMeters(statements, time);
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.2f", millis);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    private record RouteKey(String method, String uri) {
+    }
+
+    private record RouteMeters(DistributionSummary statements, Timer time) {
+    }
+
+    /** Adds the trace headers once, right before the response can be committed. */
+    private static final class TraceHeaderResponse extends HttpServletResponseWrapper {
+
+        private final SqlTrace trace;
+        private boolean headersAdded;
+
+        private TraceHeaderResponse(HttpServletResponse response, SqlTrace trace) {
+            super(response);
+            this.trace = trace;
+        }
+
+        void addTraceHeaders() {
+            if (headersAdded || isCommitted()) {
+                return;
+            }
+            headersAdded = true;
+            setHeader(SQL_COUNT_HEADER, Integer.toString(trace.getStatements()));
+            addHeader(SERVER_TIMING_HEADER, "db;desc=\"" + trace.getStatements() + " statements\";dur="
+                    + format(trace.getTotalMillis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTraceHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTraceHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTraceHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addTraceHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addTraceHeaders();
+            super.sendError(sc);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.meditracker.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/** Registered per session by {@link SqlTracer}; brackets each JDBC execution. */
+public class SqlTraceSessionListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        SqlTracer.executionStarted();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlTracer.executionFinished(false);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        SqlTracer.executionStarted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlTracer.executionFinished(true);
+    }
+}
\ No newline at end of file
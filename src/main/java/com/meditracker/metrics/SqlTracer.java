@@ -0,0 +1,206 @@
+package com.meditracker.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Times every JDBC execution Hibernate performs, using hooks Hibernate calls anyway: the
+ * {@link StatementInspector} sees each SQL string as it is prepared and
+ * {@link SqlTraceSessionListener} brackets each execution. Nothing wraps the DataSource,
+ * so the cost per statement is two {@code nanoTime} calls and a map update.
+ * <p>
+ * Each execution is added to the {@link SqlTrace} of the current request (if any), logged
+ * when it exceeds the slow-query threshold, and aggregated per statement into a rolling
+ * window for {@link #top(int)}. Batch executions are attributed to the statement prepared
+ * last, which is the batch's own statement when inserts and updates are ordered.
+ * <p>
+ * The window rotates every {@code window}; reports cover the current and the previous
+ * window. At most {@code max-statements} distinct statements are tracked per window.
+ */
+@Component
+public class SqlTracer implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTracer.class);
+
+    // Collapses IN lists so "in (?,?)" and "in (?,?,?)" aggregate as one statement
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    private static final ThreadLocal<ThreadState> STATE = ThreadLocal.withInitial(ThreadState::new);
+
+    // Hibernate instantiates session listeners itself, so they reach the tracer through here
+    private static volatile SqlTracer active;
+
+    private final boolean enabled;
+    private final long slowQueryNanos;
+    private final long windowNanos;
+    private final int maxStatements;
+
+    private volatile Window current;
+    private volatile Window previous;
+
+    public SqlTracer(@Value("${meditracker.sql-trace.enabled:true}") boolean enabled,
+                     @Value("${meditracker.sql-trace.slow-query-threshold:PT0.2S}") Duration slowQueryThreshold,
+                     @Value("${meditracker.sql-trace.window:PT5M}") Duration window,
+                     @Value("${meditracker.sql-trace.max-statements:500}") int maxStatements) {
+        this.enabled = enabled;
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+        this.windowNanos = window.toNanos();
+        this.maxStatements = maxStatements;
+        this.current = new Window(System.nanoTime());
+        this.previous = new Window(System.nanoTime());
+        if (enabled) {
+            active = this;
+        }
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (enabled) {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTraceSessionListener.class.getName());
+        }
+    }
+
+    public SqlTrace begin() {
+        SqlTrace trace = new SqlTrace();
+        STATE.get().trace = trace;
+        return trace;
+    }
+
+    public void end() {
+        STATE.get().trace = null;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        STATE.get().sql = sql;
+        return sql;
+    }
+
+    static void executionStarted() {
+        STATE.get().startNanos = System.nanoTime();
+    }
+
+    static void executionFinished(boolean batch) {
+        SqlTracer tracer = active;
+        if (tracer != null) {
+            tracer.record(STATE.get(), System.nanoTime(), batch);
+        }
+    }
+
+    private void record(ThreadState state, long now, boolean batch) {
+        if (state.startNanos == 0 || state.sql == null) {
+            return;
+        }
+        long nanos = now - state.startNanos;
+        state.startNanos = 0;
+        String sql = state.sql;
+
+        if (state.trace != null) {
+            state.trace.record(sql, nanos);
+        }
+        if (nanos >= slowQueryNanos) {
+            log.warn("Slow SQL ({} ms{}): {}", nanos / 1_000_000, batch ? ", batch" : "", sql);
+        }
+        windowAt(now).record(normalize(sql), nanos, maxStatements);
+    }
+
+    /** The statements with the highest total execution time over the current and previous window. */
+    public List<SqlStatementStats> top(int limit) {
+        Map<String, SqlStatementStats> merged = new HashMap<>();
+        for (Window window : List.of(previous, current)) {
+            window.statements.forEach((sql, stats) -> merged.merge(sql, stats.snapshot(sql), SqlStatementStats::plus));
+        }
+        List<SqlStatementStats> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparingDouble(SqlStatementStats::totalMillis).reversed());
+        return result.subList(0, Math.min(limit, result.size()));
+    }
+
+    private Window windowAt(long now) {
+        Window window = current;
+        if (now - window.startedNanos < windowNanos) {
+            return window;
+        }
+        synchronized (this) {
+            if (current == window) {
+                // After an idle gap the last window is too old to report
+                previous = now - window.startedNanos < 2 * windowNanos ? window : new Window(now);
+                current = new Window(now);
+            }
+            return current;
+        }
+    }
+
+    private static String normalize(String sql) {
+        return sql.contains("?,") || sql.contains("?, ") ? PARAMETER_LIST.matcher(sql).replaceAll("?...") : sql;
+    }
+
+    private static final class ThreadState {
+        private String sql;
+        private long startNanos;
+        private SqlTrace trace;
+    }
+
+    private static final class Window {
+        private final long startedNanos;
+        private final Map<String, Aggregate> statements = new ConcurrentHashMap<>();
+
+        private Window(long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+
+        private void record(String sql, long nanos, int maxStatements) {
+            Aggregate aggregate = statements.get(sql);
+            if (aggregate == null) {
+                if (statements.size() >= maxStatements) {
+                    return;
+                }
+                aggregate = statements.computeIfAbsent(sql, k -> new Aggregate());
+            }
+            aggregate.executions.increment();
+            aggregate.totalNanos.add(nanos);
+            aggregate.maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    private static final class Aggregate {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private SqlStatementStats snapshot(String sql) {
+            return SqlStatementStats.of(sql, executions.sum(), totalNanos.sum() / 1_000_000.0,
+                    maxNanos.get() / 1_000_000.0);
+        }
+    }
+
+    public record SqlStatementStats(String sql, long executions, double totalMillis, double avgMillis,
+                                    double maxMillis) {
+
+        static SqlStatementStats of(String sql, long executions, double totalMillis, double maxMillis) {
+            return new SqlStatementStats(sql, executions, totalMillis,
+                    executions == 0 ? 0.0 : totalMillis / executions, maxMillis);
+        }
+
+        SqlStatementStats plus(SqlStatementStats other) {
+            return of(sql, executions + other.executions, totalMillis + other.totalMillis,
+                    Math.max(maxMillis, other.maxMillis));
+        }
+    }
+}
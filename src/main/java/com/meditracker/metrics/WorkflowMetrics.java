@@ -0,0 +1,108 @@
+package com.meditracker.metrics;
+
+import com.meditracker.cache.RfidResolutionCache;
+import com.meditracker.cache.VisitSummaryCache;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.VisitStatus;
+import com.meditracker.idempotency.IdempotencyStore;
+import com.meditracker.ledger.WalletSnapshotCompactor;
+import com.meditracker.notification.NotificationDispatcher;
+import com.meditracker.queue.DepartmentQueueBoard;
+import com.meditracker.queue.LabWorklist;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges over state the application already keeps in memory, so scrapes never hit the
+ * database: active visits from the {@link DepartmentQueueBoard}, the lab worklist, the
+ * notification queue, the RFID resolution cache, the visit summary cache, the wallet
+ * snapshot compactor and the idempotency store.
+ */
+@Component
+public class WorkflowMetrics implements MeterBinder {
+
+    private final DepartmentQueueBoard queueBoard;
+    private final LabWorklist labWorklist;
+    private final NotificationDispatcher notificationDispatcher;
+    private final RfidResolutionCache rfidResolutionCache;
+    private final VisitSummaryCache visitSummaryCache;
+    private final WalletSnapshotCompactor walletCompactor;
+    private final IdempotencyStore idempotencyStore;
+
+    public WorkflowMetrics(DepartmentQueueBoard queueBoard,
+                           LabWorklist labWorklist,
+                           NotificationDispatcher notificationDispatcher,
+                           RfidResolutionCache rfidResolutionCache,
+                           VisitSummaryCache visitSummaryCache,
+                           WalletSnapshotCompactor walletCompactor,
+                           IdempotencyStore idempotencyStore) {
+        this.queueBoard = queueBoard;
+        this.labWorklist = labWorklist;
+        this.notificationDispatcher = notificationDispatcher;
+        this.rfidResolutionCache = rfidResolutionCache;
+        this.visitSummaryCache = visitSummaryCache;
+        this.walletCompactor = walletCompactor;
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Department department : Department.values()) {
+            Gauge.builder("meditracker.visits.active", queueBoard, board -> board.countByDepartment(department))
+                    .description("Active visits per department")
+                    .tag("department", department.name())
+                    .register(registry);
+        }
+        for (VisitStatus status : VisitStatus.active()) {
+            Gauge.builder("meditracker.visits.active.status", queueBoard, board -> board.countByStatus(status))
+                    .description("Active visits per status")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+
+        Gauge.builder("meditracker.lab.worklist.waiting", labWorklist, w -> w.stats().waiting())
+                .description("Ordered lab tests not yet claimed")
+                .register(registry);
+        Gauge.builder("meditracker.lab.worklist.in_progress", labWorklist, w -> w.stats().inProgress())
+                .register(registry);
+
+        Gauge.builder("meditracker.notifications.queue.depth", notificationDispatcher, d -> d.stats().queueDepth())
+                .register(registry);
+        FunctionCounter.builder("meditracker.notifications.sent", notificationDispatcher, d -> d.stats().sent())
+                .register(registry);
+        FunctionCounter.builder("meditracker.notifications.failed", notificationDispatcher, d -> d.stats().failed())
+                .register(registry);
+        FunctionCounter.builder("meditracker.notifications.dropped", notificationDispatcher, d -> d.stats().dropped())
+                .register(registry);
+
+        Gauge.builder("meditracker.rfid.cache.size", rfidResolutionCache, c -> c.stats().size())
+                .register(registry);
+        FunctionCounter.builder("meditracker.rfid.cache.hits", rfidResolutionCache, c -> c.stats().hits())
+                .register(registry);
+        FunctionCounter.builder("meditracker.rfid.cache.misses", rfidResolutionCache, c -> c.stats().misses())
+                .register(registry);
+
+        Gauge.builder("meditracker.summary.cache.size", visitSummaryCache, c -> c.stats().size())
+                .register(registry);
+        FunctionCounter.builder("meditracker.summary.cache.hits", visitSummaryCache, c -> c.stats().hits())
+                .register(registry);
+        FunctionCounter.builder("meditracker.summary.cache.misses", visitSummaryCache, c -> c.stats().misses())
+                .description("Completed-visit summaries built from the database")
+                .register(registry);
+
+        Gauge.builder("meditracker.wallet.snapshots.pending", walletCompactor, c -> c.stats().pending())
+                .description("Wallets queued for snapshot compaction")
+                .register(registry);
+        FunctionCounter.builder("meditracker.wallet.snapshots.rolled", walletCompactor, c -> c.stats().compactions())
+                .register(registry);
+
+        Gauge.builder("meditracker.idempotency.keys", idempotencyStore, s -> s.stats().size())
+                .register(registry);
+        FunctionCounter.builder("meditracker.idempotency.replays", idempotencyStore, s -> s.stats().replays())
+                .description("Retried writes answered from a stored response")
+                .register(registry);
+    }
+}
\ No newline at end of file
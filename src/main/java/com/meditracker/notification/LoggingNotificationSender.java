@@ -0,0 +1,28 @@
+package com.meditracker.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Local stand-in for Firebase Cloud Messaging; writes every push message to the log.
+ */
+@Component
+public class LoggingNotificationSender implements NotificationSender {
+    private static final Logger log = LoggerFactory.getLogger(LoggingNotificationSender.class);
+
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.PUSH;
+    }
+
+    @Override
+    public void send(List<Notification> batch) {
+        // Placeholder for Firebase Cloud Messaging integration
+        for (Notification n : batch) {
+            log.info("[FCM] To patient {}: {} - {}", n.patientId(), n.title(), n.body());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.meditracker.notification;
+
+/**
+ * A single outbound message. {@code enqueuedAtNanos} is stamped when the message enters
+ * the dispatch queue and is used to measure end-to-end send latency.
+ */
+public record Notification(NotificationChannel channel, Long patientId, String title, String body,
+                           long enqueuedAtNanos) {
+
+    public Notification(NotificationChannel channel, Long patientId, String title, String body) {
+        this(channel, patientId, title, body, 0L);
+    }
+
+    Notification stamped(long nanos) {
+        return new Notification(channel, patientId, title, body, nanos);
+    }
+}
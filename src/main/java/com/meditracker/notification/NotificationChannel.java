@@ -0,0 +1,7 @@
+package com.meditracker.notification;
+
+public enum NotificationChannel {
+    PUSH,
+    SMS,
+    EMAIL
+}
@@ -0,0 +1,234 @@
+package com.meditracker.notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process queue between the transactional services and the outbound channels.
+ * Notifications are accepted only after the publishing transaction commits, so send latency
+ * never extends row-lock time. Worker threads drain the queue in batches grouped by channel
+ * and retry failed batches with exponential backoff and jitter. Each batch's delivery,
+ * retries included, is recorded in the {@code meditracker.notifications.send} timer of its
+ * channel.
+ * <p>
+ * Backpressure: when the queue is full the committing thread waits at most
+ * {@code offer-timeout} and then drops the message, counting it in {@link Stats#dropped()}.
+ * <p>
+ * Workers are virtual threads when {@code spring.threads.virtual.enabled} is set and the
+ * JVM supports them (Java 21+), platform daemon threads otherwise.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final AtomicLong PLATFORM_WORKERS = new AtomicLong();
+
+    static final String SEND_METRIC = "meditracker.notifications.send";
+
+    private final Map<NotificationChannel, NotificationSender> senders = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Timer> sendTimers = new EnumMap<>(NotificationChannel.class);
+    private final BlockingQueue<Notification> queue;
+    private final int capacity;
+    private final int workerCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long offerTimeoutMillis;
+    private final ThreadFactory workerFactory;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder latencyNanosTotal = new LongAdder();
+    private final AtomicLong latencyNanosMax = new AtomicLong();
+
+    public NotificationDispatcher(List<NotificationSender> senderBeans,
+                                  @Value("${meditracker.notifications.queue-capacity:10000}") int capacity,
+                                  @Value("${meditracker.notifications.workers:2}") int workerCount,
+                                  @Value("${meditracker.notifications.batch-size:50}") int batchSize,
+                                  @Value("${meditracker.notifications.max-attempts:3}") int maxAttempts,
+                                  @Value("${meditracker.notifications.retry-backoff:PT0.2S}") Duration retryBackoff,
+                                  @Value("${meditracker.notifications.offer-timeout:PT0.05S}") Duration offerTimeout,
+                                  Environment environment,
+                                  MeterRegistry registry) {
+        senderBeans.forEach(sender -> senders.put(sender.channel(), sender));
+        senders.keySet().forEach(channel -> sendTimers.put(channel, Timer.builder(SEND_METRIC)
+                .description("Delivery of one notification batch, retries included")
+                .tag("channel", channel.name())
+                .publishPercentileHistogram()
+                .register(registry)));
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.offerTimeoutMillis = offerTimeout.toMillis();
+        this.workerFactory = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("notification-worker-").getVirtualThreadFactory()
+                : NotificationDispatcher::platformWorker;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = workerFactory.newThread(this::drainLoop);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    private static Thread platformWorker(Runnable task) {
+        Thread thread = new Thread(task, "notification-worker-" + PLATFORM_WORKERS.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /** Runs after commit; outside a transaction the message is accepted immediately. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotification(Notification notification) {
+        enqueue(notification);
+    }
+
+    public boolean enqueue(Notification notification) {
+        try {
+            if (queue.offer(notification.stamped(System.nanoTime()), offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                enqueued.increment();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        log.warn("Notification queue full ({}), dropping '{}' for patient {}",
+                capacity, notification.title(), notification.patientId());
+        return false;
+    }
+
+    private void drainLoop() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                log.error("Notification worker failed to dispatch batch", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<Notification> batch) throws InterruptedException {
+        Map<NotificationChannel, List<Notification>> byChannel = batch.stream()
+                .collect(Collectors.groupingBy(Notification::channel,
+                        () -> new EnumMap<>(NotificationChannel.class), Collectors.toList()));
+        for (Map.Entry<NotificationChannel, List<Notification>> entry : byChannel.entrySet()) {
+            NotificationSender sender = senders.get(entry.getKey());
+            if (sender == null) {
+                log.warn("No sender for channel {}, dropping {} notifications", entry.getKey(), entry.getValue().size());
+                dropped.add(entry.getValue().size());
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                sendWithRetry(sender, entry.getValue());
+            } finally {
+                sendTimers.get(entry.getKey()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void sendWithRetry(NotificationSender sender, List<Notification> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sender.send(batch);
+                recordSent(batch);
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    failed.add(batch.size());
+                    log.warn("Giving up on {} {} notifications after {} attempts: {}",
+                            batch.size(), sender.channel(), attempt, e.getMessage());
+                    return;
+                }
+                retries.increment();
+                // Full jitter: sleep a random time up to the exponential backoff ceiling
+                long ceiling = retryBackoffMillis << (attempt - 1);
+                Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            }
+        }
+    }
+
+    private void recordSent(List<Notification> batch) {
+        long now = System.nanoTime();
+        for (Notification n : batch) {
+            long latency = now - n.enqueuedAtNanos();
+            latencyNanosTotal.add(latency);
+            latencyNanosMax.accumulateAndGet(latency, Math::max);
+        }
+        sent.add(batch.size());
+    }
+
+    public Stats stats() {
+        long sentCount = sent.sum();
+        double avgMillis = sentCount == 0 ? 0.0 : latencyNanosTotal.sum() / 1_000_000.0 / sentCount;
+        return new Stats(queue.size(), capacity, enqueued.sum(), sentCount, failed.sum(), dropped.sum(),
+                retries.sum(), avgMillis, latencyNanosMax.get() / 1_000_000.0);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        // Workers keep draining until the queue is empty, then exit on the next poll timeout
+        for (Thread worker : workers) {
+            worker.join(5000);
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Shutting down with {} undelivered notifications", queue.size());
+        }
+    }
+
+    public record Stats(int queueDepth, int capacity, long enqueued, long sent, long failed, long dropped,
+                        long retries, double avgLatencyMillis, double maxLatencyMillis) {
+    }
+}
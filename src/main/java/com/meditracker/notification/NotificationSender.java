@@ -0,0 +1,14 @@
+package com.meditracker.notification;
+
+import java.util.List;
+
+/**
+ * Delivers batches of notifications over one channel. Implementations should throw on
+ * failure so the dispatcher can retry the whole batch.
+ */
+public interface NotificationSender {
+
+    NotificationChannel channel();
+
+    void send(List<Notification> batch) throws Exception;
+}
@@ -0,0 +1,156 @@
+package com.meditracker.queue;
+
+import com.meditracker.controller.dto.ActiveVisitDTO;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.VisitStatus;
+import com.meditracker.repository.VisitRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory model of every department queue, kept current from {@link VisitChangedEvent}s
+ * after the originating transaction commits. Screens subscribe over Server-Sent Events,
+ * receive one {@code snapshot} event and then a {@code delta} per change instead of
+ * polling the active-visit endpoints.
+ */
+@Component
+public class DepartmentQueueBoard {
+
+    private static final Logger log = LoggerFactory.getLogger(DepartmentQueueBoard.class);
+
+    private final VisitRepository visitRepository;
+    private final long emitterTimeoutMillis;
+
+    private final Map<Department, ConcurrentNavigableMap<Long, ActiveVisitDTO>> queues = new EnumMap<>(Department.class);
+    private final Map<Department, Set<SseEmitter>> departmentSubscribers = new EnumMap<>(Department.class);
+    private final Set<SseEmitter> boardSubscribers = new CopyOnWriteArraySet<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Single thread keeps deltas ordered and keeps slow screens off the committing request thread
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "queue-board-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DepartmentQueueBoard(VisitRepository visitRepository,
+                                @Value("${meditracker.queue-board.emitter-timeout:PT30M}") Duration emitterTimeout) {
+        this.visitRepository = visitRepository;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        for (Department department : Department.values()) {
+            queues.put(department, new ConcurrentSkipListMap<>());
+            departmentSubscribers.put(department, new CopyOnWriteArraySet<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ActiveVisitDTO> active = visitRepository.findActiveVisits();
+        active.forEach(v -> queues.get(v.getDepartment()).put(v.getVisitId(), v));
+        log.info("Queue board loaded with {} active visits", active.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisitChanged(VisitChangedEvent event) {
+        ActiveVisitDTO visit = event.visit();
+        ConcurrentNavigableMap<Long, ActiveVisitDTO> queue = queues.get(visit.getDepartment());
+        QueueDelta delta;
+        if (visit.getStatus() == VisitStatus.COMPLETED) {
+            if (queue.remove(visit.getVisitId()) == null) {
+                return;
+            }
+            delta = new QueueDelta(sequence.incrementAndGet(), QueueDelta.Type.REMOVE,
+                    visit.getDepartment(), visit.getVisitId(), null);
+        } else {
+            queue.put(visit.getVisitId(), visit);
+            delta = new QueueDelta(sequence.incrementAndGet(), QueueDelta.Type.UPSERT,
+                    visit.getDepartment(), visit.getVisitId(), visit);
+        }
+        dispatcher.execute(() -> {
+            broadcast(boardSubscribers, delta);
+            broadcast(departmentSubscribers.get(delta.department()), delta);
+        });
+    }
+
+    public List<ActiveVisitDTO> snapshot(Department department) {
+        if (department != null) {
+            return new ArrayList<>(queues.get(department).values());
+        }
+        List<ActiveVisitDTO> all = new ArrayList<>();
+        queues.values().forEach(queue -> all.addAll(queue.values()));
+        return all;
+    }
+
+    public int countByDepartment(Department department) {
+        return queues.get(department).size();
+    }
+
+    public long countByStatus(VisitStatus status) {
+        return queues.values().stream()
+                .flatMap(queue -> queue.values().stream())
+                .filter(v -> v.getStatus() == status)
+                .count();
+    }
+
+    /** Subscribes to one department, or to the whole building when {@code department} is null. */
+    public SseEmitter subscribe(Department department) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Set<SseEmitter> subscribers = department != null ? departmentSubscribers.get(department) : boardSubscribers;
+        subscribers.add(emitter);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("snapshot")
+                    .id(Long.toString(sequence.get()))
+                    .data(snapshot(department)));
+        } catch (IOException e) {
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    private void broadcast(Set<SseEmitter> subscribers, QueueDelta delta) {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("delta")
+                        .id(Long.toString(delta.sequence()))
+                        .data(delta));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        boardSubscribers.forEach(SseEmitter::complete);
+        departmentSubscribers.values().forEach(set -> set.forEach(SseEmitter::complete));
+    }
+}
@@ -0,0 +1,10 @@
+package com.meditracker.queue;
+
+import com.meditracker.controller.dto.LabTestDTO;
+
+/**
+ * Published by {@code LabService} whenever a lab test is ordered, claimed or changes status.
+ * Carries a detached snapshot so listeners running after commit never touch entities.
+ */
+public record LabTestChangedEvent(LabTestDTO labTest) {
+}
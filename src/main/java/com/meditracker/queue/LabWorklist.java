@@ -0,0 +1,204 @@
+package com.meditracker.queue;
+
+import com.meditracker.controller.dto.LabTestDTO;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.LabTestStatus;
+import com.meditracker.repository.LabTestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * In-memory lab worklist: every ORDERED test in priority order (urgent first, then oldest
+ * order) plus the tests IN_PROGRESS, kept current from {@link LabTestChangedEvent}s after
+ * the originating transaction commits. Technicians read snapshots of it instead of
+ * scanning {@code lab_tests}, and {@link #poll} hands each waiting test to one caller only.
+ * <p>
+ * The database stays the authority: a polled test is only claimed once the conditional
+ * update in {@code LabService.claimNext} succeeds, so tests claimed through another
+ * instance are skipped. The worklist is rebuilt at most every {@code resync} to pick up
+ * tests ordered through other instances.
+ */
+@Component
+public class LabWorklist {
+
+    private static final Logger log = LoggerFactory.getLogger(LabWorklist.class);
+
+    private static final Comparator<LabTestDTO> PRIORITY = Comparator
+            .comparing((LabTestDTO t) -> !t.isUrgent())
+            .thenComparing(LabTestDTO::getCreatedAt)
+            .thenComparing(LabTestDTO::getId);
+
+    private final LabTestRepository labTestRepository;
+    private final long resyncNanos;
+    private final Object loadLock = new Object();
+
+    // Guarded by this
+    private final TreeSet<LabTestDTO> waiting = new TreeSet<>(PRIORITY);
+    private final Map<Long, LabTestDTO> waitingById = new HashMap<>();
+    private final TreeMap<Long, LabTestDTO> inProgress = new TreeMap<>();
+    private long loadedAtNanos;
+    // Changes applied while a reload is reading; replayed over its older result
+    private List<LabTestDTO> appliedDuringLoad;
+
+    public LabWorklist(LabTestRepository labTestRepository,
+                       @Value("${meditracker.lab-worklist.resync:PT1M}") Duration resync) {
+        this.labTestRepository = labTestRepository;
+        this.resyncNanos = resync.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (loadLock) {
+            synchronized (this) {
+                appliedDuringLoad = new ArrayList<>();
+            }
+            List<LabTestDTO> open = labTestRepository
+                    .findWithVisitByStatusIn(List.of(LabTestStatus.ORDERED, LabTestStatus.IN_PROGRESS)).stream()
+                    .map(LabTestDTO::fromLabTest)
+                    .toList();
+            synchronized (this) {
+                waiting.clear();
+                waitingById.clear();
+                inProgress.clear();
+                open.forEach(this::apply);
+                appliedDuringLoad.forEach(this::apply);
+                appliedDuringLoad = null;
+                loadedAtNanos = System.nanoTime();
+            }
+            log.debug("Lab worklist loaded with {} open tests", open.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onLabTestChanged(LabTestChangedEvent event) {
+        apply(event.labTest());
+        if (appliedDuringLoad != null) {
+            appliedDuringLoad.add(event.labTest());
+        }
+    }
+
+    /**
+     * Takes the highest-priority waiting test, of the department when one is given. The
+     * caller must claim it in the database; if its transaction rolls back the test goes
+     * back on the list.
+     *
+     * @return the test, or null when nothing is waiting
+     */
+    public LabTestDTO poll(Department department) {
+        resyncIfStale();
+        LabTestDTO next = null;
+        synchronized (this) {
+            Iterator<LabTestDTO> it = waiting.iterator();
+            while (it.hasNext()) {
+                LabTestDTO candidate = it.next();
+                if (department == null || candidate.getDepartment() == department) {
+                    it.remove();
+                    waitingById.remove(candidate.getId());
+                    next = candidate;
+                    break;
+                }
+            }
+        }
+        if (next != null) {
+            LabTestDTO polled = next;
+            onRollback(() -> requeue(polled));
+        }
+        return next;
+    }
+
+    /** Waiting tests in the order they will be handed out, then the tests in progress. */
+    public List<LabTestDTO> snapshot(Department department) {
+        resyncIfStale();
+        List<LabTestDTO> list = new ArrayList<>();
+        synchronized (this) {
+            for (LabTestDTO test : waiting) {
+                if (department == null || test.getDepartment() == department) {
+                    list.add(test);
+                }
+            }
+            for (LabTestDTO test : inProgress.values()) {
+                if (department == null || test.getDepartment() == department) {
+                    list.add(test);
+                }
+            }
+        }
+        return list;
+    }
+
+    /** Open tests with the given status; empty for COMPLETED, which the worklist does not hold. */
+    public List<LabTestDTO> byStatus(LabTestStatus status) {
+        return snapshot(null).stream().filter(t -> t.getStatus() == status).toList();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(waiting.size(), inProgress.size());
+    }
+
+    private void apply(LabTestDTO test) {
+        LabTestDTO previous = waitingById.remove(test.getId());
+        if (previous != null) {
+            waiting.remove(previous);
+        }
+        inProgress.remove(test.getId());
+        if (test.getStatus() == LabTestStatus.ORDERED) {
+            waiting.add(test);
+            waitingById.put(test.getId(), test);
+        } else if (test.getStatus() == LabTestStatus.IN_PROGRESS) {
+            inProgress.put(test.getId(), test);
+        }
+    }
+
+    private synchronized void requeue(LabTestDTO test) {
+        if (!inProgress.containsKey(test.getId()) && !waitingById.containsKey(test.getId())) {
+            apply(test);
+        }
+    }
+
+    private void resyncIfStale() {
+        boolean stale;
+        synchronized (this) {
+            stale = System.nanoTime() - loadedAtNanos > resyncNanos;
+            if (stale) {
+                // Other callers keep using the current list while this one reloads
+                loadedAtNanos = System.nanoTime();
+            }
+        }
+        if (stale) {
+            load();
+        }
+    }
+
+    private static void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    public record Stats(int waiting, int inProgress) {
+    }
+}
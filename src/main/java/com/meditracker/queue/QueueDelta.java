@@ -0,0 +1,15 @@
+package com.meditracker.queue;
+
+import com.meditracker.controller.dto.ActiveVisitDTO;
+import com.meditracker.domain.enums.Department;
+
+/**
+ * Incremental change pushed to queue screens. {@code visit} is null for removals.
+ */
+public record QueueDelta(long sequence, Type type, Department department, Long visitId, ActiveVisitDTO visit) {
+
+    public enum Type {
+        UPSERT,
+        REMOVE
+    }
+}
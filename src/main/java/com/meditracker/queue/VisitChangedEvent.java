@@ -0,0 +1,10 @@
+package com.meditracker.queue;
+
+import com.meditracker.controller.dto.ActiveVisitDTO;
+
+/**
+ * Published by the services whenever a visit moves through the clinical workflow.
+ * Carries a detached snapshot so listeners running after commit never touch entities.
+ */
+public record VisitChangedEvent(ActiveVisitDTO visit) {
+}
@@ -3,10 +3,37 @@ package com.meditracker.repository;
 import com.meditracker.domain.Billing;
 import com.meditracker.domain.Visit;
 import com.meditracker.domain.enums.BillingStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BillingRepository extends JpaRepository<Billing, Long> {
     List<Billing> findByVisit(Visit visit);
     List<Billing> findByStatus(BillingStatus status);
+
+    long countByVisitAndStatus(Visit visit, BillingStatus status);
+
+    // Claims a pending bill; concurrent payers of the same bill serialize on the row and only one sees 1
+    @Modifying
+    @Query("update Billing b set b.status = com.meditracker.domain.enums.BillingStatus.PAID, " +
+           "b.paidAt = :now, b.updatedAt = :now, b.version = b.version + 1 " +
+           "where b.id = :billingId and b.status = com.meditracker.domain.enums.BillingStatus.PENDING")
+    int markPaidIfPending(@Param("billingId") Long billingId, @Param("now") LocalDateTime now);
+
+    // Row locks keep single-bill payments out while a visit is being settled
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Billing b where b.visit.id = :visitId " +
+           "and b.status = com.meditracker.domain.enums.BillingStatus.PENDING order by b.id")
+    List<Billing> findPendingByVisitIdForUpdate(@Param("visitId") Long visitId);
+
+    @Modifying
+    @Query("update Billing b set b.status = com.meditracker.domain.enums.BillingStatus.PAID, " +
+           "b.paidAt = :now, b.updatedAt = :now, b.version = b.version + 1 where b.id in :billingIds")
+    int markPaid(@Param("billingIds") Collection<Long> billingIds, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
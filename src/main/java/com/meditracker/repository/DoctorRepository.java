@@ -2,12 +2,22 @@ package com.meditracker.repository;
 
 import com.meditracker.domain.Doctor;
 import com.meditracker.domain.enums.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
-    Optional<Doctor> findFirstByDepartment(Department department);
     List<Doctor> findByDepartment(Department department);
+
+    List<Doctor> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select d from Doctor d order by d.id")
+    Stream<Doctor> streamAll();
 }
\ No newline at end of file
@@ -4,10 +4,41 @@ package com.meditracker.repository;
 import com.meditracker.domain.LabTest;
 import com.meditracker.domain.Visit;
 import com.meditracker.domain.enums.LabTestStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface LabTestRepository extends JpaRepository<LabTest, Long> {
     List<LabTest> findByVisit(Visit visit);
+    long countByVisitAndStatusNot(Visit visit, LabTestStatus status);
     List<LabTest> findByStatus(LabTestStatus status);
+
+    @Query("select lt from LabTest lt join fetch lt.visit v join fetch v.patient join fetch v.doctor " +
+           "where lt.status in :statuses")
+    List<LabTest> findWithVisitByStatusIn(@Param("statuses") Collection<LabTestStatus> statuses);
+
+    // Claims an ordered test; technicians racing for the same test serialize on the row and only one sees 1
+    @Modifying
+    @Query("update LabTest lt set lt.status = com.meditracker.domain.enums.LabTestStatus.IN_PROGRESS, " +
+           "lt.claimedBy = :technician, lt.updatedAt = :now, lt.version = lt.version + 1 " +
+           "where lt.id = :labTestId and lt.status = com.meditracker.domain.enums.LabTestStatus.ORDERED")
+    int claimIfOrdered(@Param("labTestId") Long labTestId, @Param("technician") String technician,
+                       @Param("now") LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"visit", "visit.patient", "visit.doctor"})
+    List<LabTest> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select lt from LabTest lt join fetch lt.visit v join fetch v.patient join fetch v.doctor order by lt.id")
+    Stream<LabTest> streamAll();
 }
\ No newline at end of file
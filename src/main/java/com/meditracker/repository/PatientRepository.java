@@ -1,9 +1,28 @@
 package com.meditracker.repository;
 
+import com.meditracker.cache.RfidResolution;
 import com.meditracker.domain.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PatientRepository extends JpaRepository<Patient, Long> {
     Optional<Patient> findByRfidUid(String rfidUid);
+
+    @Query("select new com.meditracker.cache.RfidResolution(p.id, w.id, p.fullName) " +
+           "from Patient p left join Wallet w on w.patient = p where p.rfidUid = :rfidUid")
+    Optional<RfidResolution> findResolutionByRfidUid(@Param("rfidUid") String rfidUid);
+
+    List<Patient> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Patient p order by p.id")
+    Stream<Patient> streamAll();
 }
\ No newline at end of file
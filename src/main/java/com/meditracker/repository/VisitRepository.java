@@ -1,16 +1,72 @@
 package com.meditracker.repository;
 
+import com.meditracker.assignment.VisitLoad;
+import com.meditracker.cache.VisitHistoryRef;
+import com.meditracker.controller.dto.ActiveVisitDTO;
 import com.meditracker.domain.Patient;
 import com.meditracker.domain.Visit;
 import com.meditracker.domain.enums.Department;
 import com.meditracker.domain.enums.VisitStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface VisitRepository extends JpaRepository<Visit, Long> {
-    List<Visit> findByStatus(VisitStatus status);
-    List<Visit> findByPatientOrderByCreatedAtDesc(Patient patient);
     Optional<Visit> findFirstByPatientAndStatusNotOrderByCreatedAtDesc(Patient patient, VisitStatus status);
     List<Visit> findByDepartmentAndStatusNot(Department department, VisitStatus status);
+
+    // Both seek the active statuses in an index led by status, so completed history is never read.
+    // Over several statuses the index cannot supply created_at order; that is a sort of the open rows.
+    @Query("select new com.meditracker.controller.dto.ActiveVisitDTO(v.id, p.fullName, p.rfidUid, v.department, " +
+           "v.status, d.fullName, d.roomNumber, d.floor, v.createdAt) " +
+           "from Visit v join v.patient p join v.doctor d " +
+           "where v.status in :statuses order by v.createdAt")
+    List<ActiveVisitDTO> findActiveVisits(@Param("statuses") Collection<VisitStatus> statuses);
+
+    @Query("select new com.meditracker.controller.dto.ActiveVisitDTO(v.id, p.fullName, p.rfidUid, v.department, " +
+           "v.status, d.fullName, d.roomNumber, d.floor, v.createdAt) " +
+           "from Visit v join v.patient p join v.doctor d " +
+           "where v.status in :statuses and v.department = :department order by v.createdAt")
+    List<ActiveVisitDTO> findActiveVisitsByDepartment(@Param("statuses") Collection<VisitStatus> statuses,
+                                                      @Param("department") Department department);
+
+    @Query("select new com.meditracker.assignment.VisitLoad(v.id, v.doctor.id, v.status) " +
+           "from Visit v where v.status in :statuses")
+    List<VisitLoad> findActiveVisitLoads(@Param("statuses") Collection<VisitStatus> statuses);
+
+    default List<ActiveVisitDTO> findActiveVisits() {
+        return findActiveVisits(VisitStatus.active());
+    }
+
+    default List<ActiveVisitDTO> findActiveVisitsByDepartment(Department department) {
+        return findActiveVisitsByDepartment(VisitStatus.active(), department);
+    }
+
+    // Lets history skip hydrating the visits whose summaries are already cached
+    @Query("select new com.meditracker.cache.VisitHistoryRef(v.id, v.status) " +
+           "from Visit v where v.patient.id = :patientId order by v.createdAt desc")
+    List<VisitHistoryRef> findHistoryRefsByPatientId(@Param("patientId") Long patientId);
+
+    @EntityGraph(attributePaths = {"patient", "doctor"})
+    List<Visit> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Served by idx_visits_status_id and idx_visits_patient, whose entries end in the primary key
+    @EntityGraph(attributePaths = {"patient", "doctor"})
+    List<Visit> findByStatusAndIdGreaterThanOrderByIdAsc(VisitStatus status, Long id, Limit limit);
+
+    @EntityGraph(attributePaths = {"patient", "doctor"})
+    List<Visit> findByPatientIdAndIdGreaterThanOrderByIdAsc(Long patientId, Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select v from Visit v join fetch v.patient join fetch v.doctor order by v.id")
+    Stream<Visit> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.meditracker.repository;
+
+import com.meditracker.domain.VisitSummaryRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface VisitSummaryRecordRepository extends JpaRepository<VisitSummaryRecord, Long> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from VisitSummaryRecord r where r.visitId = :visitId")
+    int deleteByVisitId(@Param("visitId") Long visitId);
+
+    // Runs after the patient update committed, outside its transaction
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("delete from VisitSummaryRecord r where r.patientId = :patientId")
+    int deleteByPatientId(@Param("patientId") Long patientId);
+}
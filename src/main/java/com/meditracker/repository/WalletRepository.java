@@ -1,10 +1,36 @@
 package com.meditracker.repository;
 
 import com.meditracker.domain.Wallet;
+import com.meditracker.domain.Money;
 import com.meditracker.domain.Patient;
+import com.meditracker.ledger.WalletSnapshot;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
     Optional<Wallet> findByPatient(Patient patient);
+
+    // Serializes ledger appends on one wallet; the row itself is only written by the compactor
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.meditracker.ledger.WalletSnapshot(w.snapshotBalance, w.snapshotSeq, w.active) " +
+           "from Wallet w where w.id = :walletId")
+    Optional<WalletSnapshot> lockSnapshot(@Param("walletId") Long walletId);
+
+    @Modifying
+    @Query("update Wallet w set w.snapshotBalance = :balance, w.snapshotSeq = :throughSeq, w.updatedAt = :now " +
+           "where w.id = :walletId and w.snapshotSeq < :throughSeq")
+    int rollSnapshot(@Param("walletId") Long walletId,
+                     @Param("balance") Money balance,
+                     @Param("throughSeq") long throughSeq,
+                     @Param("now") LocalDateTime now);
+
+    // Snapshot plus later ledger rows, in one statement
+    @Query("select w.balance from Wallet w where w.id = :walletId")
+    Money findBalanceById(@Param("walletId") Long walletId);
 }
\ No newline at end of file
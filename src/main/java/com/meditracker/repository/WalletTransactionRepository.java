@@ -0,0 +1,23 @@
+package com.meditracker.repository;
+
+import com.meditracker.domain.WalletTransaction;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+public interface WalletTransactionRepository extends JpaRepository<WalletTransaction, Long> {
+    List<WalletTransaction> findByWalletIdOrderByIdDesc(Long walletId);
+    long countByWalletId(Long walletId);
+
+    // Locking read: sees the latest committed rows even under REPEATABLE READ
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select t from WalletTransaction t where t.wallet.id = :walletId and t.seq > :afterSeq order by t.seq")
+    List<WalletTransaction> findAfterSeqForShare(@Param("walletId") Long walletId, @Param("afterSeq") long afterSeq);
+
+    @Query("select t.wallet.id from WalletTransaction t, Wallet w where w.id = t.wallet.id " +
+           "and t.seq > w.snapshotSeq group by t.wallet.id having count(t) >= :minRows")
+    List<Long> findWalletIdsWithUncompactedRows(@Param("minRows") long minRows);
+}
\ No newline at end of file
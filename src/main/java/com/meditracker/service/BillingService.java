@@ -1,14 +1,22 @@
 package com.meditracker.service;
 
+import com.meditracker.cache.RfidResolution;
+import com.meditracker.cache.RfidResolutionCache;
+import com.meditracker.cache.VisitSummaryCache;
+import com.meditracker.controller.dto.ActiveVisitDTO;
+import com.meditracker.controller.dto.SettlementReceipt;
+import com.meditracker.controller.dto.VisitSummaryDTO;
+import com.meditracker.datasource.ReplicaLagGuard;
 import com.meditracker.domain.*;
 import com.meditracker.domain.enums.BillingStatus;
+import com.meditracker.domain.enums.VisitStatus;
+import com.meditracker.queue.VisitChangedEvent;
 import com.meditracker.repository.BillingRepository;
-import com.meditracker.repository.PatientRepository;
 import com.meditracker.repository.VisitRepository;
 import com.meditracker.repository.WalletRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,29 +24,42 @@ import java.util.List;
 public class BillingService {
 
     private final BillingRepository billingRepository;
-    private final WalletRepository walletRepository;
     private final VisitRepository visitRepository;
-    private final PatientRepository patientRepository;
+    private final WalletRepository walletRepository;
+    private final WalletLedgerService walletLedgerService;
     private final NotificationService notificationService;
+    private final RfidResolutionCache rfidResolutionCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final VisitSummaryCache visitSummaryCache;
 
     public BillingService(BillingRepository billingRepository,
-                          WalletRepository walletRepository,
                           VisitRepository visitRepository,
-                          PatientRepository patientRepository,
-                          NotificationService notificationService) {
+                          WalletRepository walletRepository,
+                          WalletLedgerService walletLedgerService,
+                          NotificationService notificationService,
+                          RfidResolutionCache rfidResolutionCache,
+                          ApplicationEventPublisher eventPublisher,
+                          ReplicaLagGuard replicaLagGuard,
+                          VisitSummaryCache visitSummaryCache) {
         this.billingRepository = billingRepository;
-        this.walletRepository = walletRepository;
         this.visitRepository = visitRepository;
-        this.patientRepository = patientRepository;
+        this.walletRepository = walletRepository;
+        this.walletLedgerService = walletLedgerService;
         this.notificationService = notificationService;
+        this.rfidResolutionCache = rfidResolutionCache;
+        this.eventPublisher = eventPublisher;
+        this.replicaLagGuard = replicaLagGuard;
+        this.visitSummaryCache = visitSummaryCache;
     }
 
     @Transactional
     public void payWithRfid(String rfidUid, Long billingId) {
-        Patient patient = patientRepository.findByRfidUid(rfidUid)
+        RfidResolution resolved = rfidResolutionCache.resolve(rfidUid)
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
-        Wallet wallet = walletRepository.findByPatient(patient)
-                .orElseThrow(() -> new IllegalStateException("Wallet not found"));
+        if (resolved.walletId() == null) {
+            throw new IllegalStateException("Wallet not found");
+        }
         Billing bill = billingRepository.findById(billingId)
                 .orElseThrow(() -> new IllegalArgumentException("Billing item not found"));
 
@@ -46,41 +67,115 @@ public class BillingService {
             return; // idempotent
         }
 
-        BigDecimal balance = wallet.getBalance();
-        if (balance.compareTo(bill.getAmount()) < 0) {
-            throw new IllegalStateException("Insufficient wallet balance");
+        // Claim the bill first so a double tap cannot pay it twice; the debit below rolls
+        // the claim back if the balance is insufficient
+        if (billingRepository.markPaidIfPending(billingId, LocalDateTime.now()) == 0) {
+            return; // paid concurrently
+        }
+        walletLedgerService.debit(resolved.walletId(), bill.getAmount(), bill,
+                "Payment - " + bill.getItemDescription());
+        replicaLagGuard.recordWrite(resolved.patientId(), bill.getVisit().getId());
+        if (bill.getVisit().getStatus() == VisitStatus.COMPLETED) {
+            // A bill added after completion; the cached summary still shows it pending
+            visitSummaryCache.evictAfterCommit(bill.getVisit().getId());
         }
-
-        wallet.setBalance(balance.subtract(bill.getAmount()));
-        bill.setStatus(BillingStatus.PAID);
-        bill.setPaidAt(LocalDateTime.now());
-        walletRepository.saveAndFlush(wallet);
-        billingRepository.saveAndFlush(bill);
 
         try {
-            notificationService.sendToPatient(patient.getId(), "Payment Success",
+            notificationService.sendToPatient(resolved.patientId(), "Payment Success",
                     "Paid " + bill.getAmount() + " for " + bill.getItemDescription());
         } catch (Exception e) {
             // Don't fail payment if notification fails
         }
 
         Visit visit = bill.getVisit();
-        boolean anyUnpaid = billingRepository.findByVisit(visit).stream()
-                .anyMatch(b -> b.getStatus() != BillingStatus.PAID);
+        boolean anyUnpaid = billingRepository.countByVisitAndStatus(visit, BillingStatus.PENDING) > 0;
         boolean anyPendingLab = false; // simplified
         if (!anyUnpaid && !anyPendingLab) {
             visit.setStatus(com.meditracker.domain.enums.VisitStatus.COMPLETED);
-            visitRepository.saveAndFlush(visit);
+            visitRepository.save(visit);
+            eventPublisher.publishEvent(new VisitChangedEvent(
+                    ActiveVisitDTO.fromVisit(visit, resolved.patientName(), rfidUid)));
             try {
-                notificationService.sendToPatient(patient.getId(), "Visit Completed", "Thank you for visiting.");
+                notificationService.sendToPatient(resolved.patientId(), "Visit Completed", "Thank you for visiting.");
             } catch (Exception e) {
                 // Don't fail if notification fails
             }
         }
     }
 
+    /**
+     * Settles every pending bill of a visit in one transaction: the pending rows are locked,
+     * the wallet is debited once for the total, the bills are marked paid with one update
+     * and the visit is completed. Paying an already settled visit returns an empty receipt.
+     */
+    @Transactional
+    public SettlementReceipt payVisitBills(String rfidUid, Long visitId) {
+        RfidResolution resolved = rfidResolutionCache.resolve(rfidUid)
+                .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        if (resolved.walletId() == null) {
+            throw new IllegalStateException("Wallet not found");
+        }
+        Visit visit = visitRepository.findById(visitId)
+                .orElseThrow(() -> new IllegalArgumentException("Visit not found"));
+        if (!visit.getPatient().getId().equals(resolved.patientId())) {
+            throw new IllegalArgumentException("Visit does not belong to this patient");
+        }
+
+        List<Billing> pending = billingRepository.findPendingByVisitIdForUpdate(visitId);
+        replicaLagGuard.recordWrite(resolved.patientId(), visitId);
+        LocalDateTime now = LocalDateTime.now();
+        Money total = Money.ZERO;
+        Money remaining = null;
+        if (!pending.isEmpty()) {
+            remaining = walletLedgerService.debitAll(resolved.walletId(), pending, "Payment - ");
+            billingRepository.markPaid(pending.stream().map(Billing::getId).toList(), now);
+            long paid = 0;
+            for (Billing bill : pending) {
+                paid += bill.getAmount().minor();
+            }
+            total = Money.ofMinor(paid);
+            notificationService.sendToPatient(resolved.patientId(), "Payment Success",
+                    "Paid " + total + " for " + pending.size() + " items");
+        }
+
+        if (visit.getStatus() == VisitStatus.COMPLETED) {
+            if (!pending.isEmpty()) {
+                visitSummaryCache.evictAfterCommit(visitId);
+            }
+        } else {
+            visit.setStatus(VisitStatus.COMPLETED);
+            visitRepository.save(visit);
+            eventPublisher.publishEvent(new VisitChangedEvent(
+                    ActiveVisitDTO.fromVisit(visit, resolved.patientName(), rfidUid)));
+            notificationService.sendToPatient(resolved.patientId(), "Visit Completed", "Thank you for visiting.");
+        }
+
+        SettlementReceipt receipt = new SettlementReceipt();
+        receipt.setVisitId(visitId);
+        receipt.setVisitStatus(visit.getStatus());
+        receipt.setItemsPaid(pending.stream().map(b -> toPaidItem(b, now)).toList());
+        receipt.setTotalPaid(total.toBigDecimal());
+        receipt.setRemainingBalance((remaining != null ? remaining : walletRepository.findBalanceById(resolved.walletId()))
+                .toBigDecimal());
+        receipt.setPaidAt(now);
+        return receipt;
+    }
+
+    // The bulk update bypasses the persistence context, so the loaded rows still read PENDING
+    private VisitSummaryDTO.BillingItem toPaidItem(Billing bill, LocalDateTime paidAt) {
+        VisitSummaryDTO.BillingItem item = new VisitSummaryDTO.BillingItem();
+        item.setId(bill.getId());
+        item.setType(bill.getType().toString());
+        item.setDescription(bill.getItemDescription());
+        item.setAmount(bill.getAmount().toBigDecimal());
+        item.setStatus(BillingStatus.PAID.toString());
+        item.setPaidAt(paidAt);
+        return item;
+    }
+
     @Transactional(readOnly = true)
     public List<Billing> getByVisit(Long visitId) {
+        replicaLagGuard.readingVisit(visitId);
         Visit visit = visitRepository.findById(visitId)
                 .orElseThrow(() -> new IllegalArgumentException("Visit not found"));
         return billingRepository.findByVisit(visit);
@@ -1,14 +1,25 @@
 package com.meditracker.service;
 
+import com.meditracker.cache.VisitSummaryCache;
+import com.meditracker.controller.dto.ActiveVisitDTO;
+import com.meditracker.controller.dto.LabTestDTO;
+import com.meditracker.datasource.ReplicaLagGuard;
 import com.meditracker.domain.*;
+import com.meditracker.domain.enums.Department;
 import com.meditracker.domain.enums.LabTestStatus;
+import com.meditracker.domain.enums.VisitStatus;
+import com.meditracker.queue.LabTestChangedEvent;
+import com.meditracker.queue.LabWorklist;
+import com.meditracker.queue.VisitChangedEvent;
 import com.meditracker.repository.BillingRepository;
 import com.meditracker.repository.LabTestRepository;
 import com.meditracker.repository.VisitRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Service
 public class LabService {
@@ -17,38 +28,81 @@ public class LabService {
     private final LabTestRepository labTestRepository;
     private final BillingRepository billingRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final VisitSummaryCache visitSummaryCache;
+    private final LabWorklist labWorklist;
 
     public LabService(VisitRepository visitRepository,
                       LabTestRepository labTestRepository,
                       BillingRepository billingRepository,
-                      NotificationService notificationService) {
+                      NotificationService notificationService,
+                      ApplicationEventPublisher eventPublisher,
+                      ReplicaLagGuard replicaLagGuard,
+                      VisitSummaryCache visitSummaryCache,
+                      LabWorklist labWorklist) {
         this.visitRepository = visitRepository;
         this.labTestRepository = labTestRepository;
         this.billingRepository = billingRepository;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.replicaLagGuard = replicaLagGuard;
+        this.visitSummaryCache = visitSummaryCache;
+        this.labWorklist = labWorklist;
     }
 
     @Transactional
     public LabTest orderTest(Long visitId, String testName, BigDecimal price) {
+        return orderTest(visitId, testName, price, false);
+    }
+
+    @Transactional
+    public LabTest orderTest(Long visitId, String testName, BigDecimal price, boolean urgent) {
         Visit visit = visitRepository.findById(visitId)
                 .orElseThrow(() -> new IllegalArgumentException("Visit not found"));
+        Money amount = Money.of(price);
         LabTest test = new LabTest();
         test.setVisit(visit);
         test.setTestName(testName);
-        test.setPrice(price);
+        test.setPrice(amount);
         test.setStatus(LabTestStatus.ORDERED);
-        LabTest saved = labTestRepository.saveAndFlush(test);
+        test.setUrgent(urgent);
+        LabTest saved = labTestRepository.save(test);
 
         Billing bill = new Billing();
         bill.setVisit(visit);
         bill.setType(com.meditracker.domain.enums.BillingType.LAB_TEST);
         bill.setItemDescription("Lab Test - " + testName);
-        bill.setAmount(price);
-        billingRepository.saveAndFlush(bill);
+        bill.setAmount(amount);
+        billingRepository.save(bill);
+        replicaLagGuard.recordWrite(visit.getPatient().getId(), visitId);
+        evictIfCompleted(visit);
+        eventPublisher.publishEvent(new LabTestChangedEvent(LabTestDTO.fromLabTest(saved)));
 
         return saved;
     }
 
+    /**
+     * Claims the highest-priority waiting test for the technician and starts it. Candidates
+     * come from the {@link LabWorklist}; the conditional update makes the claim exclusive,
+     * so a test another technician took first is skipped.
+     */
+    @Transactional
+    public Optional<LabTest> claimNext(String technician, Department department) {
+        for (LabTestDTO candidate = labWorklist.poll(department); candidate != null;
+             candidate = labWorklist.poll(department)) {
+            if (labTestRepository.claimIfOrdered(candidate.getId(), technician, LocalDateTime.now()) == 1) {
+                LabTest claimed = labTestRepository.findById(candidate.getId())
+                        .orElseThrow(() -> new IllegalStateException("Lab test disappeared while claiming"));
+                replicaLagGuard.recordWrite(claimed.getVisit().getPatient().getId(), claimed.getVisit().getId());
+                evictIfCompleted(claimed.getVisit());
+                eventPublisher.publishEvent(new LabTestChangedEvent(LabTestDTO.fromLabTest(claimed)));
+                return Optional.of(claimed);
+            }
+        }
+        return Optional.empty();
+    }
+
     @Transactional
     public LabTest updateStatus(Long labTestId, LabTestStatus status, String resultText) {
         LabTest labTest = labTestRepository.findById(labTestId)
@@ -64,6 +118,18 @@ public class LabService {
                 // Don't fail if notification fails
             }
         }
-        return labTestRepository.saveAndFlush(labTest);
+        LabTest saved = labTestRepository.save(labTest);
+        replicaLagGuard.recordWrite(saved.getVisit().getPatient().getId(), saved.getVisit().getId());
+        evictIfCompleted(saved.getVisit());
+        eventPublisher.publishEvent(new LabTestChangedEvent(LabTestDTO.fromLabTest(saved)));
+        eventPublisher.publishEvent(new VisitChangedEvent(ActiveVisitDTO.fromVisit(saved.getVisit())));
+        return saved;
+    }
+
+    // Summaries are only cached for completed visits, so writes to live ones have nothing to evict
+    private void evictIfCompleted(Visit visit) {
+        if (visit.getStatus() == VisitStatus.COMPLETED) {
+            visitSummaryCache.evictAfterCommit(visit.getId());
+        }
     }
 }
\ No newline at end of file
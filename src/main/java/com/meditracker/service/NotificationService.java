@@ -1,15 +1,28 @@
 package com.meditracker.service;
+import com.meditracker.notification.Notification;
+import com.meditracker.notification.NotificationChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+/**
+ * Composes patient notifications. Messages are published as events and handed to the
+ * NotificationDispatcher only after the caller's transaction commits; nothing is sent
+ * on the calling thread.
+ */
 @Service
 public class NotificationService {
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    public NotificationService(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
     public void sendToPatient(Long patientId, String title, String body) {
-        // Placeholder for Firebase Cloud Messaging integration
-        log.info("[FCM] To patient {}: {} - {}", patientId, title, body);
+        eventPublisher.publishEvent(new Notification(NotificationChannel.PUSH, patientId, title, body));
     }
     
     public void sendDischargeNotification(Long patientId, String patientName, String diagnosis) {
@@ -29,9 +42,8 @@ public class NotificationService {
         body.append("We wish you a speedy recovery!");
         
         // Send via FCM/SMS/Email
-        log.info("[DISCHARGE] Sending discharge notification to patient {}", patientId);
-        log.info("[DISCHARGE] Title: {}", title);
-        log.info("[DISCHARGE] Body:\n{}", body.toString());
+        log.info("[DISCHARGE] Queueing discharge notification to patient {}", patientId);
+        eventPublisher.publishEvent(new Notification(NotificationChannel.PUSH, patientId, title, body.toString()));
         
         // In production, this would integrate with:
         // - Firebase Cloud Messaging for push notifications
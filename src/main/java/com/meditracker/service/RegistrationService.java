@@ -1,11 +1,13 @@
 package com.meditracker.service;
 
+import com.meditracker.cache.RfidResolution;
+import com.meditracker.cache.RfidResolutionCache;
+import com.meditracker.datasource.ReplicaLagGuard;
+import com.meditracker.domain.Money;
 import com.meditracker.domain.Patient;
 import com.meditracker.domain.Wallet;
 import com.meditracker.repository.PatientRepository;
 import com.meditracker.repository.WalletRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -18,20 +20,27 @@ import java.util.Optional;
 public class RegistrationService {
 
     private static final Logger log = LoggerFactory.getLogger(RegistrationService.class);
+    private static final Money OPENING_BALANCE = Money.of(new BigDecimal("1000.00"));
     
     private final PatientRepository patientRepository;
     private final WalletRepository walletRepository;
     private final NotificationService notificationService;
-    
-    @PersistenceContext
-    private EntityManager entityManager;
+    private final RfidResolutionCache rfidResolutionCache;
+    private final WalletLedgerService walletLedgerService;
+    private final ReplicaLagGuard replicaLagGuard;
 
     public RegistrationService(PatientRepository patientRepository,
                                WalletRepository walletRepository,
-                               NotificationService notificationService) {
+                               NotificationService notificationService,
+                               RfidResolutionCache rfidResolutionCache,
+                               WalletLedgerService walletLedgerService,
+                               ReplicaLagGuard replicaLagGuard) {
         this.patientRepository = patientRepository;
         this.walletRepository = walletRepository;
         this.notificationService = notificationService;
+        this.rfidResolutionCache = rfidResolutionCache;
+        this.walletLedgerService = walletLedgerService;
+        this.replicaLagGuard = replicaLagGuard;
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
@@ -52,18 +61,17 @@ public class RegistrationService {
         p.setPhoneNumber(phoneNumber);
         p.setDateOfBirth(dateOfBirth);
         
-        log.info("Saving patient to database...");
-        // Save patient with immediate flush
-        Patient saved = patientRepository.saveAndFlush(p);
-        entityManager.flush();  // Double flush to be absolutely sure
-        
-        log.info("Patient saved: ID={}", saved.getId());
+        // IDENTITY ids make this INSERT run now; only the perf profile's sequences (orm-perf.xml)
+        // defer the inserts and batch them at commit
+        Patient saved = patientRepository.save(p);
         
         // Create wallet
         Wallet wallet = new Wallet();
         wallet.setPatient(saved);
-        wallet.setBalance(new BigDecimal("1000.00"));
-        walletRepository.saveAndFlush(wallet);
+        walletRepository.save(wallet);
+        walletLedgerService.recordOpeningBalance(wallet.getId(), OPENING_BALANCE);
+        replicaLagGuard.recordWrite(saved.getId(), null);
+        rfidResolutionCache.putAfterCommit(rfidUid, new RfidResolution(saved.getId(), wallet.getId(), fullName));
         
         log.info("Wallet created for patient ID={}", saved.getId());
         
@@ -74,14 +82,6 @@ public class RegistrationService {
             log.warn("Notification failed but continuing: {}", e.getMessage());
         }
         
-        // Verify patient was saved
-        Optional<Patient> verification = patientRepository.findByRfidUid(rfidUid);
-        if (verification.isEmpty()) {
-            log.error("CRITICAL: Patient not found immediately after save!");
-        } else {
-            log.info("Verification successful: Patient found with ID={}", verification.get().getId());
-        }
-        
         log.info("=== REGISTRATION COMPLETE: RFID={}, ID={} ===", rfidUid, saved.getId());
         return saved;
     }
@@ -1,44 +1,79 @@
 package com.meditracker.service;
 
+import com.meditracker.assignment.DoctorAssignmentEngine;
+import com.meditracker.cache.DoctorDirectory;
+import com.meditracker.cache.RfidResolution;
+import com.meditracker.cache.RfidResolutionCache;
+import com.meditracker.cache.VisitHistoryRef;
+import com.meditracker.cache.VisitSummaryCache;
+import com.meditracker.controller.dto.ActiveVisitDTO;
 import com.meditracker.controller.dto.VisitSummaryDTO;
+import com.meditracker.datasource.ReplicaLagGuard;
 import com.meditracker.domain.*;
 import com.meditracker.domain.enums.*;
+import com.meditracker.queue.VisitChangedEvent;
 import com.meditracker.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 public class VisitService {
 
     private final PatientRepository patientRepository;
-    private final DoctorRepository doctorRepository;
+    private final DoctorDirectory doctorDirectory;
     private final VisitRepository visitRepository;
     private final BillingRepository billingRepository;
     private final LabTestRepository labTestRepository;
     private final NotificationService notificationService;
+    private final RfidResolutionCache rfidResolutionCache;
+    private final VisitSummaryAssembler visitSummaryAssembler;
+    private final VisitSummaryCache visitSummaryCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final DoctorAssignmentEngine doctorAssignment;
 
     public VisitService(PatientRepository patientRepository,
-                        DoctorRepository doctorRepository,
+                        DoctorDirectory doctorDirectory,
                         VisitRepository visitRepository,
                         BillingRepository billingRepository,
                         LabTestRepository labTestRepository,
-                        NotificationService notificationService) {
+                        NotificationService notificationService,
+                        RfidResolutionCache rfidResolutionCache,
+                        VisitSummaryAssembler visitSummaryAssembler,
+                        VisitSummaryCache visitSummaryCache,
+                        ApplicationEventPublisher eventPublisher,
+                        ReplicaLagGuard replicaLagGuard,
+                        DoctorAssignmentEngine doctorAssignment) {
         this.patientRepository = patientRepository;
-        this.doctorRepository = doctorRepository;
+        this.doctorDirectory = doctorDirectory;
         this.visitRepository = visitRepository;
         this.billingRepository = billingRepository;
         this.labTestRepository = labTestRepository;
         this.notificationService = notificationService;
+        this.rfidResolutionCache = rfidResolutionCache;
+        this.visitSummaryAssembler = visitSummaryAssembler;
+        this.visitSummaryCache = visitSummaryCache;
+        this.eventPublisher = eventPublisher;
+        this.replicaLagGuard = replicaLagGuard;
+        this.doctorAssignment = doctorAssignment;
     }
 
     @Transactional
     public Visit startVisit(String rfidUid, Department department) {
-        Patient patient = patientRepository.findByRfidUid(rfidUid)
+        RfidResolution resolved = rfidResolutionCache.resolve(rfidUid)
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
-        Doctor doctor = doctorRepository.findFirstByDepartment(department)
+        Patient patient = patientRepository.getReferenceById(resolved.patientId());
+        Long doctorId = doctorAssignment.assign(department);
+        if (doctorId == null) {
+            throw new IllegalArgumentException("Doctor not found for department");
+        }
+        // Detached snapshot entity; the visit only needs its id for the foreign key
+        Doctor doctor = doctorDirectory.find(doctorId)
                 .orElseThrow(() -> new IllegalArgumentException("Doctor not found for department"));
 
         Visit visit = new Visit();
@@ -46,14 +81,16 @@ public class VisitService {
         visit.setDoctor(doctor);
         visit.setDepartment(department);
         visit.setStatus(VisitStatus.REGISTERED);
-        Visit saved = visitRepository.saveAndFlush(visit);
+        Visit saved = visitRepository.save(visit);
+        doctorAssignment.assigned(saved.getId(), doctorId);
 
         Billing billing = new Billing();
         billing.setVisit(saved);
         billing.setType(BillingType.CONSULTATION);
         billing.setItemDescription("Consultation - " + doctor.getFullName());
-        billing.setAmount(doctor.getConsultationFee() != null ? doctor.getConsultationFee() : new BigDecimal("300.00"));
-        billingRepository.saveAndFlush(billing);
+        billing.setAmount(doctor.getConsultationFee() != null ? doctor.getConsultationFee() : Doctor.DEFAULT_CONSULTATION_FEE);
+        billingRepository.save(billing);
+        publishChange(saved, rfidUid, resolved);
 
         try {
             notificationService.sendToPatient(patient.getId(), "Visit Started", "Assigned to Dr. " + doctor.getFullName());
@@ -72,7 +109,9 @@ public class VisitService {
         visit.setBpDiastolic(dia);
         visit.setHeartRate(hr);
         visit.setStatus(VisitStatus.VITALS);
-        return visitRepository.saveAndFlush(visit);
+        Visit saved = visitRepository.save(visit);
+        publishChange(saved);
+        return saved;
     }
 
     @Transactional
@@ -82,48 +121,48 @@ public class VisitService {
         visit.setDiagnosis(diagnosis);
         visit.setMedications(medications);
         visit.setStatus(testsNeeded ? VisitStatus.LAB_PENDING : VisitStatus.BILLING_PENDING);
-        return visitRepository.saveAndFlush(visit);
+        Visit saved = visitRepository.save(visit);
+        publishChange(saved);
+        return saved;
     }
 
     @Transactional
     public VisitSummaryDTO dischargePatient(String rfidUid) {
-        Patient patient = patientRepository.findByRfidUid(rfidUid)
+        RfidResolution resolved = rfidResolutionCache.resolve(rfidUid)
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found with RFID: " + rfidUid));
+        Patient patient = patientRepository.getReferenceById(resolved.patientId());
         
         // Find the most recent non-completed visit
         Visit visit = visitRepository.findFirstByPatientAndStatusNotOrderByCreatedAtDesc(patient, VisitStatus.COMPLETED)
                 .orElseThrow(() -> new IllegalStateException("No active visit found for patient"));
         
         // Validate all billing is complete
-        List<Billing> billings = billingRepository.findByVisit(visit);
-        boolean hasUnpaidBills = billings.stream()
-                .anyMatch(b -> b.getStatus() != BillingStatus.PAID);
-        
-        if (hasUnpaidBills) {
+        if (billingRepository.countByVisitAndStatus(visit, BillingStatus.PENDING) > 0) {
             throw new IllegalStateException("Cannot discharge patient - unpaid bills exist");
         }
         
         // Validate all lab tests are complete (if any)
-        List<LabTest> labTests = labTestRepository.findByVisit(visit);
-        boolean hasIncompleteLabs = labTests.stream()
-                .anyMatch(lt -> lt.getStatus() != LabTestStatus.COMPLETED);
-        
-        if (hasIncompleteLabs) {
+        if (labTestRepository.countByVisitAndStatusNot(visit, LabTestStatus.COMPLETED) > 0) {
             throw new IllegalStateException("Cannot discharge patient - lab tests are not completed");
         }
         
-        // Mark visit as completed
+        // Mark visit as completed and flush, so the summary query reads it back as stored
+        long cacheToken = visitSummaryCache.token();
         visit.setStatus(VisitStatus.COMPLETED);
         visitRepository.saveAndFlush(visit);
+        publishChange(visit, rfidUid, resolved);
         
-        // Generate and return summary
-        VisitSummaryDTO summary = generateVisitSummary(visit);
+        // Generate, store and return summary
+        VisitSummaryDTO summary = visitSummaryAssembler.assemble(visit.getId())
+                .orElseThrow(() -> new IllegalStateException("Visit not found"))
+                .summary();
+        visitSummaryCache.materialize(summary, patient.getId(), cacheToken);
         
         // Send discharge notification with "Get well soon!" message
         try {
             notificationService.sendDischargeNotification(
                     patient.getId(), 
-                    patient.getFullName(), 
+                    resolved.patientName(), 
                     visit.getDiagnosis()
             );
         } catch (Exception e) {
@@ -135,109 +174,57 @@ public class VisitService {
 
     @Transactional(readOnly = true)
     public VisitSummaryDTO getVisitSummary(Long visitId) {
-        Visit visit = visitRepository.findById(visitId)
+        replicaLagGuard.readingVisit(visitId);
+        long cacheToken = visitSummaryCache.token();
+        Optional<VisitSummaryDTO> cached = visitSummaryCache.find(visitId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        VisitSummaryAssembler.Assembled assembled = visitSummaryAssembler.assemble(visitId)
                 .orElseThrow(() -> new IllegalArgumentException("Visit not found"));
-        return generateVisitSummary(visit);
+        visitSummaryCache.cacheCompleted(assembled.summary(), assembled.patientId(), cacheToken);
+        return assembled.summary();
     }
 
     @Transactional(readOnly = true)
     public List<VisitSummaryDTO> getPatientVisitHistory(String rfidUid) {
-        Patient patient = patientRepository.findByRfidUid(rfidUid)
+        RfidResolution resolved = rfidResolutionCache.resolve(rfidUid)
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found with RFID: " + rfidUid));
-        
-        List<Visit> visits = visitRepository.findByPatientOrderByCreatedAtDesc(patient);
-        return visits.stream()
-                .map(this::generateVisitSummary)
-                .collect(Collectors.toList());
+        replicaLagGuard.readingPatient(resolved.patientId());
+        long cacheToken = visitSummaryCache.token();
+        
+        // Completed visits come from the cache; only live and uncached ones are built
+        List<VisitHistoryRef> history = visitRepository.findHistoryRefsByPatientId(resolved.patientId());
+        Map<Long, VisitSummaryDTO> summaries = visitSummaryCache.findAll(history.stream()
+                .filter(ref -> ref.status() == VisitStatus.COMPLETED)
+                .map(VisitHistoryRef::visitId)
+                .toList());
+        List<Long> missing = history.stream()
+                .map(VisitHistoryRef::visitId)
+                .filter(id -> !summaries.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            for (VisitSummaryAssembler.Assembled assembled : visitSummaryAssembler.assemble(missing)) {
+                VisitSummaryDTO summary = assembled.summary();
+                summaries.put(summary.getVisitId(), summary);
+                visitSummaryCache.cacheCompleted(summary, resolved.patientId(), cacheToken);
+            }
+        }
+        return history.stream()
+                .map(ref -> summaries.get(ref.visitId()))
+                .filter(Objects::nonNull)
+                .toList();
     }
 
-    private VisitSummaryDTO generateVisitSummary(Visit visit) {
-        VisitSummaryDTO summary = new VisitSummaryDTO();
-        
-        // Basic visit info
-        summary.setVisitId(visit.getId());
-        summary.setVisitDate(visit.getCreatedAt());
-        summary.setStatus(visit.getStatus());
-        summary.setCreatedAt(visit.getCreatedAt());
-        summary.setUpdatedAt(visit.getUpdatedAt());
-        if (visit.getStatus() == VisitStatus.COMPLETED) {
-            summary.setDischargedAt(visit.getUpdatedAt());
-        }
-        
-        // Patient info
-        Patient patient = visit.getPatient();
-        summary.setPatientName(patient.getFullName());
-        summary.setPatientPhone(patient.getPhoneNumber());
-        summary.setRfidUid(patient.getRfidUid());
-        
-        // Doctor info
-        Doctor doctor = visit.getDoctor();
-        summary.setDoctorName(doctor.getFullName());
-        summary.setDepartment(visit.getDepartment());
-        summary.setRoomNumber(doctor.getRoomNumber());
-        
-        // Vitals
-        VisitSummaryDTO.VitalsInfo vitals = new VisitSummaryDTO.VitalsInfo(
-                visit.getTemperatureCelsius(),
-                visit.getBpSystolic(),
-                visit.getBpDiastolic(),
-                visit.getHeartRate()
-        );
-        summary.setVitals(vitals);
-        
-        // Consultation details
-        summary.setDiagnosis(visit.getDiagnosis());
-        summary.setMedications(visit.getMedications());
-        
-        // Lab tests
-        List<LabTest> labTests = labTestRepository.findByVisit(visit);
-        List<VisitSummaryDTO.LabTestInfo> labTestInfos = labTests.stream()
-                .map(lt -> {
-                    VisitSummaryDTO.LabTestInfo info = new VisitSummaryDTO.LabTestInfo();
-                    info.setId(lt.getId());
-                    info.setTestName(lt.getTestName());
-                    info.setStatus(lt.getStatus().toString());
-                    info.setPrice(lt.getPrice());
-                    info.setResultText(lt.getResultText());
-                    info.setCompletedAt(lt.getCompletedAt());
-                    return info;
-                })
-                .collect(Collectors.toList());
-        summary.setLabTests(labTestInfos);
-        
-        // Billing summary
-        List<Billing> billings = billingRepository.findByVisit(visit);
-        VisitSummaryDTO.BillingSummary billingSummary = new VisitSummaryDTO.BillingSummary();
-        
-        List<VisitSummaryDTO.BillingItem> billingItems = billings.stream()
-                .map(b -> {
-                    VisitSummaryDTO.BillingItem item = new VisitSummaryDTO.BillingItem();
-                    item.setId(b.getId());
-                    item.setType(b.getType().toString());
-                    item.setDescription(b.getItemDescription());
-                    item.setAmount(b.getAmount());
-                    item.setStatus(b.getStatus().toString());
-                    item.setPaidAt(b.getPaidAt());
-                    return item;
-                })
-                .collect(Collectors.toList());
-        
-        billingSummary.setItems(billingItems);
-        billingSummary.setTotalAmount(billings.stream()
-                .map(Billing::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-        billingSummary.setTotalPaid(billings.stream()
-                .filter(b -> b.getStatus() == BillingStatus.PAID)
-                .map(Billing::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-        billingSummary.setTotalDue(billings.stream()
-                .filter(b -> b.getStatus() == BillingStatus.PENDING)
-                .map(Billing::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-        billingSummary.setFullyPaid(billingSummary.getTotalDue().compareTo(BigDecimal.ZERO) == 0);
-        
-        summary.setBilling(billingSummary);
-        
-        return summary;
+    private void publishChange(Visit visit) {
+        replicaLagGuard.recordWrite(visit.getPatient().getId(), visit.getId());
+        eventPublisher.publishEvent(new VisitChangedEvent(ActiveVisitDTO.fromVisit(visit)));
+    }
+
+    // The patient is a reference proxy here; reading it would cost a select per card tap
+    private void publishChange(Visit visit, String rfidUid, RfidResolution resolved) {
+        replicaLagGuard.recordWrite(resolved.patientId(), visit.getId());
+        eventPublisher.publishEvent(new VisitChangedEvent(
+                ActiveVisitDTO.fromVisit(visit, resolved.patientName(), rfidUid)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,248 @@
+package com.meditracker.service;
+
+import com.meditracker.controller.dto.VisitSummaryDTO;
+import com.meditracker.domain.Billing;
+import com.meditracker.domain.Doctor;
+import com.meditracker.domain.LabTest;
+import com.meditracker.domain.Money;
+import com.meditracker.domain.Patient;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.BillingStatus;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.VisitStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Builds {@link VisitSummaryDTO}s for any number of visits with one native SQL statement.
+ * Per visit it returns one row per lab test (at least one row, carrying the visit, patient
+ * and doctor columns) followed by one row per bill. The rows are folded into summaries in
+ * a single pass and no entity is hydrated. Billing totals are summed in paise.
+ * <p>
+ * The statement runs through Hibernate, so pending changes to the tables it reads are
+ * flushed first and it shows up in the SQL trace and statement statistics like any query.
+ */
+@Component
+public class VisitSummaryAssembler {
+
+    private static final int LAB_ROW = 0;
+
+    // Visit columns are only selected once per visit; bill rows fill them with nulls. The
+    // concat() turns enum-typed columns (H2 declares them as ENUM) into strings both unioned
+    // branches agree on.
+    private static final String SUMMARY_SQL = """
+            select v.id as visit_id, 0 as row_kind, v.patient_id, v.status as visit_status, v.department,
+                   v.created_at, v.updated_at, v.temperature_celsius, v.bp_systolic, v.bp_diastolic,
+                   v.heart_rate, v.diagnosis, v.medications,
+                   p.full_name as patient_name, p.phone_number, p.rfid_uid,
+                   d.full_name as doctor_name, d.room_number,
+                   lt.id as item_id, lt.test_name as item_name, concat(lt.status, '') as item_status, lt.price as amount,
+                   lt.result_text as detail, lt.completed_at as item_at
+              from visits v
+              join patients p on p.id = v.patient_id
+              join doctors d on d.id = v.doctor_id
+              left join lab_tests lt on lt.visit_id = v.id
+             where v.id in (:visitIds)
+            union all
+            select b.visit_id, 1, null, null, null, null, null, null, null, null, null, null, null,
+                   null, null, null, null, null,
+                   b.id, b.item_description, concat(b.status, ''), b.amount, concat(b.type, ''), b.paid_at
+              from billing b
+             where b.visit_id in (:visitIds)
+             order by visit_id, row_kind, item_id
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Optional<Assembled> assemble(Long visitId) {
+        List<Assembled> assembled = assemble(List.of(visitId));
+        return assembled.isEmpty() ? Optional.empty() : Optional.of(assembled.get(0));
+    }
+
+    /** Summaries of the visits that exist, in visit id order. */
+    public List<Assembled> assemble(Collection<Long> visitIds) {
+        if (visitIds.isEmpty()) {
+            return List.of();
+        }
+        SummaryFolder folder = new SummaryFolder();
+        try (Stream<Tuple> rows = summaryQuery(visitIds).getResultStream()) {
+            rows.forEach(folder::add);
+        }
+        return folder.finish();
+    }
+
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Tuple> summaryQuery(Collection<Long> visitIds) {
+        NativeQuery<Tuple> query = entityManager.createNativeQuery(SUMMARY_SQL, Tuple.class).unwrap(NativeQuery.class);
+        return query
+                .addSynchronizedEntityClass(Visit.class)
+                .addSynchronizedEntityClass(Patient.class)
+                .addSynchronizedEntityClass(Doctor.class)
+                .addSynchronizedEntityClass(LabTest.class)
+                .addSynchronizedEntityClass(Billing.class)
+                .addScalar("visit_id", Long.class)
+                .addScalar("row_kind", Integer.class)
+                .addScalar("patient_id", Long.class)
+                .addScalar("visit_status", String.class)
+                .addScalar("department", String.class)
+                .addScalar("created_at", LocalDateTime.class)
+                .addScalar("updated_at", LocalDateTime.class)
+                .addScalar("temperature_celsius", Double.class)
+                .addScalar("bp_systolic", Integer.class)
+                .addScalar("bp_diastolic", Integer.class)
+                .addScalar("heart_rate", Integer.class)
+                .addScalar("diagnosis", String.class)
+                .addScalar("medications", String.class)
+                .addScalar("patient_name", String.class)
+                .addScalar("phone_number", String.class)
+                .addScalar("rfid_uid", String.class)
+                .addScalar("doctor_name", String.class)
+                .addScalar("room_number", String.class)
+                .addScalar("item_id", Long.class)
+                .addScalar("item_name", String.class)
+                .addScalar("item_status", String.class)
+                .addScalar("amount", BigDecimal.class)
+                .addScalar("detail", String.class)
+                .addScalar("item_at", LocalDateTime.class)
+                .setParameterList("visitIds", visitIds);
+    }
+
+    /** A summary with the patient it belongs to, which the summary itself does not expose. */
+    public record Assembled(Long patientId, VisitSummaryDTO summary) {
+    }
+
+    // Rows arrive grouped by visit: the visit's lab rows (at least one) and then its bill rows
+    private static final class SummaryFolder {
+
+        private final List<Assembled> done = new ArrayList<>();
+        private Long currentVisitId;
+        private Long patientId;
+        private VisitSummaryDTO summary;
+        private List<VisitSummaryDTO.LabTestInfo> labTests;
+        private List<VisitSummaryDTO.BillingItem> billingItems;
+        private long total;
+        private long paid;
+        private long due;
+
+        void add(Tuple row) {
+            Long visitId = row.get("visit_id", Long.class);
+            if (!visitId.equals(currentVisitId)) {
+                close();
+                open(visitId, row);
+            }
+            if (row.get("item_id") == null) {
+                return; // a visit without lab tests
+            }
+            if (row.get("row_kind", Integer.class) == LAB_ROW) {
+                labTests.add(labTest(row));
+            } else {
+                billingItems.add(billingItem(row));
+            }
+        }
+
+        private void open(Long visitId, Tuple row) {
+            currentVisitId = visitId;
+            patientId = row.get("patient_id", Long.class);
+            labTests = new ArrayList<>();
+            billingItems = new ArrayList<>();
+            total = 0;
+            paid = 0;
+            due = 0;
+
+            summary = new VisitSummaryDTO();
+            summary.setVisitId(visitId);
+            VisitStatus status = VisitStatus.valueOf(row.get("visit_status", String.class));
+            LocalDateTime createdAt = row.get("created_at", LocalDateTime.class);
+            LocalDateTime updatedAt = row.get("updated_at", LocalDateTime.class);
+            summary.setVisitDate(createdAt);
+            summary.setStatus(status);
+            summary.setCreatedAt(createdAt);
+            summary.setUpdatedAt(updatedAt);
+            if (status == VisitStatus.COMPLETED) {
+                summary.setDischargedAt(updatedAt);
+            }
+
+            summary.setPatientName(row.get("patient_name", String.class));
+            summary.setPatientPhone(row.get("phone_number", String.class));
+            summary.setRfidUid(row.get("rfid_uid", String.class));
+
+            summary.setDoctorName(row.get("doctor_name", String.class));
+            summary.setDepartment(Department.valueOf(row.get("department", String.class)));
+            summary.setRoomNumber(row.get("room_number", String.class));
+
+            summary.setVitals(new VisitSummaryDTO.VitalsInfo(
+                    row.get("temperature_celsius", Double.class),
+                    row.get("bp_systolic", Integer.class),
+                    row.get("bp_diastolic", Integer.class),
+                    row.get("heart_rate", Integer.class)));
+
+            summary.setDiagnosis(row.get("diagnosis", String.class));
+            summary.setMedications(row.get("medications", String.class));
+        }
+
+        private VisitSummaryDTO.LabTestInfo labTest(Tuple row) {
+            VisitSummaryDTO.LabTestInfo info = new VisitSummaryDTO.LabTestInfo();
+            info.setId(row.get("item_id", Long.class));
+            info.setTestName(row.get("item_name", String.class));
+            info.setStatus(row.get("item_status", String.class));
+            info.setPrice(row.get("amount", BigDecimal.class));
+            info.setResultText(row.get("detail", String.class));
+            info.setCompletedAt(row.get("item_at", LocalDateTime.class));
+            return info;
+        }
+
+        private VisitSummaryDTO.BillingItem billingItem(Tuple row) {
+            BigDecimal amount = row.get("amount", BigDecimal.class);
+            String status = row.get("item_status", String.class);
+            long minor = Money.of(amount).minor();
+            total += minor;
+            if (BillingStatus.PAID.name().equals(status)) {
+                paid += minor;
+            } else if (BillingStatus.PENDING.name().equals(status)) {
+                due += minor;
+            }
+
+            VisitSummaryDTO.BillingItem item = new VisitSummaryDTO.BillingItem();
+            item.setId(row.get("item_id", Long.class));
+            item.setType(row.get("detail", String.class));
+            item.setDescription(row.get("item_name", String.class));
+            item.setAmount(amount);
+            item.setStatus(status);
+            item.setPaidAt(row.get("item_at", LocalDateTime.class));
+            return item;
+        }
+
+        private void close() {
+            if (summary == null) {
+                return;
+            }
+            summary.setLabTests(labTests);
+            VisitSummaryDTO.BillingSummary billing = new VisitSummaryDTO.BillingSummary();
+            billing.setItems(billingItems);
+            billing.setTotalAmount(BigDecimal.valueOf(total, 2));
+            billing.setTotalPaid(BigDecimal.valueOf(paid, 2));
+            billing.setTotalDue(BigDecimal.valueOf(due, 2));
+            billing.setFullyPaid(due == 0);
+            summary.setBilling(billing);
+            done.add(new Assembled(patientId, summary));
+        }
+
+        List<Assembled> finish() {
+            close();
+            summary = null;
+            return done;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.meditracker.service;
+
+import com.meditracker.domain.Billing;
+import com.meditracker.domain.Money;
+import com.meditracker.domain.WalletTransaction;
+import com.meditracker.domain.enums.WalletTransactionType;
+import com.meditracker.ledger.WalletSnapshot;
+import com.meditracker.ledger.WalletSnapshotCompactor;
+import com.meditracker.repository.WalletRepository;
+import com.meditracker.repository.WalletTransactionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The only place wallet balances change. Every movement is an insert into the append-only
+ * wallet_transactions ledger; the wallet row keeps a balance snapshot that only the
+ * {@link WalletSnapshotCompactor} rolls forward, and the current balance is that snapshot
+ * plus the ledger rows after it.
+ * <p>
+ * Appends to one wallet are serialized by a lock on its row (taken, never written), so the
+ * balance check is exact: concurrent taps on the same wallet cannot overdraw, and rows get
+ * gap-free per-wallet sequence numbers. Balances are summed in paise.
+ * <p>
+ * An inactive wallet takes no debits or credits, so money cannot be topped up into a wallet
+ * that can no longer spend it.
+ */
+@Service
+public class WalletLedgerService {
+
+    private final WalletRepository walletRepository;
+    private final WalletTransactionRepository walletTransactionRepository;
+    private final WalletSnapshotCompactor compactor;
+
+    public WalletLedgerService(WalletRepository walletRepository,
+                               WalletTransactionRepository walletTransactionRepository,
+                               WalletSnapshotCompactor compactor) {
+        this.walletRepository = walletRepository;
+        this.walletTransactionRepository = walletTransactionRepository;
+        this.compactor = compactor;
+    }
+
+    /** @return the balance left after the debit */
+    @Transactional
+    public Money debit(Long walletId, Money amount, Billing billing, String description) {
+        Head head = lockHead(walletId);
+        Money remaining = requireFunds(head, amount.minor());
+        append(walletId, head, List.of(newTransaction(walletId, WalletTransactionType.DEBIT, amount, billing, description)));
+        return remaining;
+    }
+
+    /**
+     * Debits the sum of all bills after one balance check and writes one ledger row per
+     * bill, so each payment stays traceable to its billing item.
+     *
+     * @return the balance left after the debit
+     */
+    @Transactional
+    public Money debitAll(Long walletId, List<Billing> bills, String descriptionPrefix) {
+        long total = 0;
+        for (Billing bill : bills) {
+            total = Math.addExact(total, bill.getAmount().minor());
+        }
+        Head head = lockHead(walletId);
+        Money remaining = requireFunds(head, total);
+        List<WalletTransaction> txns = new ArrayList<>(bills.size());
+        for (Billing bill : bills) {
+            txns.add(newTransaction(walletId, WalletTransactionType.DEBIT, bill.getAmount(), bill,
+                    descriptionPrefix + bill.getItemDescription()));
+        }
+        append(walletId, head, txns);
+        return remaining;
+    }
+
+    /** @return the balance after the credit */
+    @Transactional
+    public Money credit(Long walletId, Money amount, String description) {
+        Head head = lockHead(walletId);
+        requireActive(head);
+        append(walletId, head, List.of(newTransaction(walletId, WalletTransactionType.CREDIT, amount, null, description)));
+        return Money.ofMinor(Math.addExact(head.balance(), amount.minor()));
+    }
+
+    /** Records the opening balance of a wallet that was just inserted with an empty snapshot. */
+    @Transactional
+    public void recordOpeningBalance(Long walletId, Money amount) {
+        Head head = lockHead(walletId);
+        append(walletId, head, List.of(newTransaction(walletId, WalletTransactionType.CREDIT, amount, null, "Opening balance")));
+    }
+
+    private Head lockHead(Long walletId) {
+        WalletSnapshot snapshot = walletRepository.lockSnapshot(walletId)
+                .orElseThrow(() -> new IllegalStateException("Wallet not found"));
+        List<WalletTransaction> tail = walletTransactionRepository.findAfterSeqForShare(walletId, snapshot.throughSeq());
+        long balance = snapshot.balance().minor();
+        for (WalletTransaction txn : tail) {
+            balance += txn.signedMinor();
+        }
+        long lastSeq = tail.isEmpty() ? snapshot.throughSeq() : tail.get(tail.size() - 1).getSeq();
+        return new Head(balance, lastSeq, tail.size(), snapshot.active());
+    }
+
+    private static void requireActive(Head head) {
+        if (!head.active()) {
+            throw new IllegalStateException("Wallet is inactive");
+        }
+    }
+
+    private static Money requireFunds(Head head, long amount) {
+        requireActive(head);
+        if (head.balance() < amount) {
+            throw new IllegalStateException("Insufficient wallet balance");
+        }
+        return Money.ofMinor(head.balance() - amount);
+    }
+
+    private void append(Long walletId, Head head, List<WalletTransaction> txns) {
+        long seq = head.lastSeq();
+        for (WalletTransaction txn : txns) {
+            txn.setSeq(++seq);
+        }
+        walletTransactionRepository.saveAll(txns);
+        compactor.appended(walletId, head.rowsSinceSnapshot() + txns.size());
+    }
+
+    private WalletTransaction newTransaction(Long walletId, WalletTransactionType type, Money amount,
+                                             Billing billing, String description) {
+        WalletTransaction txn = new WalletTransaction();
+        txn.setWallet(walletRepository.getReferenceById(walletId));
+        txn.setBilling(billing);
+        txn.setType(type);
+        txn.setAmount(amount);
+        txn.setDescription(description);
+        return txn;
+    }
+
+    // The wallet's balance in paise and last ledger row as seen under its lock
+    private record Head(long balance, long lastSeq, int rowsSinceSnapshot, boolean active) {
+    }
+}
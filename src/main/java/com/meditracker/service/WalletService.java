@@ -1,5 +1,10 @@
 package com.meditracker.service;
 
+import com.meditracker.cache.RfidResolution;
+import com.meditracker.cache.RfidResolutionCache;
+import com.meditracker.controller.dto.WalletResponse;
+import com.meditracker.datasource.ReplicaLagGuard;
+import com.meditracker.domain.Money;
 import com.meditracker.domain.Patient;
 import com.meditracker.domain.Wallet;
 import com.meditracker.repository.PatientRepository;
@@ -8,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Optional;
 
 @Service
 public class WalletService {
@@ -15,44 +21,52 @@ public class WalletService {
     private final WalletRepository walletRepository;
     private final PatientRepository patientRepository;
     private final NotificationService notificationService;
+    private final RfidResolutionCache rfidResolutionCache;
+    private final WalletLedgerService walletLedgerService;
+    private final ReplicaLagGuard replicaLagGuard;
 
     public WalletService(WalletRepository walletRepository,
                         PatientRepository patientRepository,
-                        NotificationService notificationService) {
+                        NotificationService notificationService,
+                        RfidResolutionCache rfidResolutionCache,
+                        WalletLedgerService walletLedgerService,
+                        ReplicaLagGuard replicaLagGuard) {
         this.walletRepository = walletRepository;
         this.patientRepository = patientRepository;
         this.notificationService = notificationService;
+        this.rfidResolutionCache = rfidResolutionCache;
+        this.walletLedgerService = walletLedgerService;
+        this.replicaLagGuard = replicaLagGuard;
     }
 
     @Transactional
-    public Wallet topUp(String rfidUid, BigDecimal amount, String paymentMethod) {
-        Patient patient = patientRepository.findByRfidUid(rfidUid)
+    public WalletResponse topUp(String rfidUid, BigDecimal amount, String paymentMethod) {
+        RfidResolution resolved = rfidResolutionCache.resolve(rfidUid)
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found with RFID: " + rfidUid));
-        
-        Wallet wallet = walletRepository.findByPatient(patient)
-                .orElseThrow(() -> new IllegalStateException("Wallet not found for patient"));
+        if (resolved.walletId() == null) {
+            throw new IllegalStateException("Wallet not found for patient");
+        }
 
-        BigDecimal newBalance = wallet.getBalance().add(amount);
-        wallet.setBalance(newBalance);
-        Wallet updated = walletRepository.save(wallet);
+        Money newBalance = walletLedgerService.credit(resolved.walletId(), Money.of(amount),
+                "Top-up via " + (paymentMethod != null ? paymentMethod : "payment"));
+        replicaLagGuard.recordWrite(resolved.patientId(), null);
+        Wallet updated = walletRepository.findById(resolved.walletId())
+                .orElseThrow(() -> new IllegalStateException("Wallet not found for patient"));
 
         notificationService.sendToPatient(
-                patient.getId(),
+                resolved.patientId(),
                 "Wallet Recharged",
                 String.format("₹%.2f added to your wallet via %s. New balance: ₹%.2f",
-                        amount, paymentMethod != null ? paymentMethod : "payment", newBalance)
+                        amount, paymentMethod != null ? paymentMethod : "payment", newBalance.toBigDecimal())
         );
 
-        return updated;
+        // The balance computed under the wallet lock; the loaded one may predate the unflushed row
+        return WalletResponse.fromWallet(updated, newBalance);
     }
 
     @Transactional(readOnly = true)
     public Wallet getWalletByRfid(String rfidUid) {
-        Patient patient = patientRepository.findByRfidUid(rfidUid)
-                .orElseThrow(() -> new IllegalArgumentException("Patient not found with RFID: " + rfidUid));
-        
-        return walletRepository.findByPatient(patient)
-                .orElseThrow(() -> new IllegalStateException("Wallet not found for patient"));
+        return findWalletByRfid(rfidUid);
     }
 
     @Transactional(readOnly = true)
@@ -63,5 +77,13 @@ public class WalletService {
         return walletRepository.findByPatient(patient)
                 .orElseThrow(() -> new IllegalStateException("Wallet not found for patient"));
     }
-}
 
+    private Wallet findWalletByRfid(String rfidUid) {
+        RfidResolution resolved = rfidResolutionCache.resolve(rfidUid)
+                .orElseThrow(() -> new IllegalArgumentException("Patient not found with RFID: " + rfidUid));
+        replicaLagGuard.readingPatient(resolved.patientId());
+        return Optional.ofNullable(resolved.walletId())
+                .flatMap(walletRepository::findById)
+                .orElseThrow(() -> new IllegalStateException("Wallet not found for patient"));
+    }
+}
\ No newline at end of file
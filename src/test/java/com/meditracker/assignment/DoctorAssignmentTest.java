@@ -0,0 +1,74 @@
+package com.meditracker.assignment;
+
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.fixture.ClinicFixture;
+import com.meditracker.service.VisitService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DoctorAssignmentTest {
+
+    @Autowired
+    private ClinicFixture fixture;
+    @Autowired
+    private DoctorAssignmentEngine doctorAssignment;
+    @Autowired
+    private VisitService visitService;
+
+    @Test
+    void visitsSpreadOverTheLeastLoadedDoctors() {
+        List<Long> doctorIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            doctorIds.add(fixture.doctor(Department.NEUROLOGY, "Dr. Neuro " + i).getId());
+        }
+
+        List<Visit> visits = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            visits.add(fixture.visit("ASSIGN-" + i, Department.NEUROLOGY));
+        }
+        Map<Long, Long> perDoctor = visits.stream()
+                .collect(Collectors.groupingBy(v -> v.getDoctor().getId(), Collectors.counting()));
+        assertEquals(Map.of(doctorIds.get(0), 2L, doctorIds.get(1), 2L, doctorIds.get(2), 2L), perDoctor);
+
+        // Moving one doctor's patients on to billing frees that doctor first
+        Long freed = visits.get(0).getDoctor().getId();
+        visits.stream()
+                .filter(v -> v.getDoctor().getId().equals(freed))
+                .forEach(v -> visitService.addConsultation(v.getId(), "Migraine", "Rest", false));
+        assertEquals(freed, fixture.visit("ASSIGN-NEXT", Department.NEUROLOGY).getDoctor().getId());
+
+        Map<Long, Integer> loads = doctorAssignment.loads(Department.NEUROLOGY).stream()
+                .collect(Collectors.toMap(DoctorAssignmentEngine.DoctorLoadView::doctorId,
+                        DoctorAssignmentEngine.DoctorLoadView::load));
+        assertEquals(3, loads.get(freed));
+        doctorIds.stream().filter(id -> !id.equals(freed)).forEach(id -> assertEquals(6, loads.get(id)));
+    }
+
+    @Test
+    void rebuildFromDatabaseMatchesIncrementalState() {
+        fixture.doctor(Department.PEDIATRICS, "Dr. Kids A");
+        fixture.doctor(Department.PEDIATRICS, "Dr. Kids B");
+        for (int i = 0; i < 5; i++) {
+            fixture.visit("REBUILD-" + i, Department.PEDIATRICS);
+        }
+        List<DoctorAssignmentEngine.DoctorLoadView> incremental = doctorAssignment.loads(Department.PEDIATRICS);
+
+        doctorAssignment.load();
+
+        assertEquals(incremental, doctorAssignment.loads(Department.PEDIATRICS));
+        assertTrue(incremental.stream().allMatch(d -> d.load() > 0));
+    }
+}
@@ -0,0 +1,198 @@
+package com.meditracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditracker.MeditrackerApplication;
+import com.meditracker.service.RegistrationService;
+import com.meditracker.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code POST /api/visits/start} and {@code POST /api/billing/pay} under 2,000 concurrent
+ * kiosks, with the default platform-thread Tomcat pool against the {@code virtual} profile.
+ * Each kiosk is a closed loop: start a visit, look up its consultation bill (not measured),
+ * pay it, repeat. Both runs use the {@code perf} profile because H2 hands out duplicate
+ * IDENTITY keys under concurrent inserts.
+ * <p>
+ * The virtual profile only takes effect on a Java 21 runtime. Not part of the regular suite;
+ * run it explicitly:
+ * <pre>mvn test -Dtest=KioskLoadBenchmark [-Dkiosks=2000 -Drounds=5]</pre>
+ */
+class KioskLoadBenchmark {
+
+    private static final int KIOSKS = Integer.getInteger("kiosks", 2000);
+    private static final int ROUNDS = Integer.getInteger("rounds", 5);
+    private static final int WARMUP_KIOSKS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = run("platform", "test", "perf");
+        Result virtual = run("virtual", "test", "perf", "virtual");
+
+        System.out.println();
+        System.out.printf("%d kiosks x %d rounds, Java %d%n", KIOSKS, ROUNDS, Runtime.version().feature());
+        System.out.printf("%-10s %-14s %12s %10s %10s %8s%n", "threads", "endpoint", "req/sec", "p50 ms", "p99 ms", "errors");
+        platform.print("platform");
+        virtual.print("virtual");
+        if (Runtime.version().feature() < 21) {
+            System.out.println("(virtual threads need Java 21; both runs used platform threads)");
+        }
+        System.out.println();
+    }
+
+    private Result run(String name, String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MeditrackerApplication.class)
+                .profiles(profiles)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + name
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--logging.level.com.meditracker=WARN")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            register(context, "WARM", WARMUP_KIOSKS);
+            register(context, "KIOSK", KIOSKS);
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            drive(client, baseUrl, "WARM", WARMUP_KIOSKS, 2, new Samples(), new Samples());
+
+            Samples start = new Samples();
+            Samples pay = new Samples();
+            long started = System.nanoTime();
+            drive(client, baseUrl, "KIOSK", KIOSKS, ROUNDS, start, pay);
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            return new Result(start, pay, seconds);
+        }
+    }
+
+    // Single writer, see the class comment; every kiosk can pay for all its rounds
+    private void register(ConfigurableApplicationContext context, String prefix, int kiosks) {
+        RegistrationService registrationService = context.getBean(RegistrationService.class);
+        WalletService walletService = context.getBean(WalletService.class);
+        for (int i = 0; i < kiosks; i++) {
+            String rfid = prefix + "-" + i;
+            registrationService.registerOrFetch(rfid, "Kiosk " + rfid, null, null);
+            walletService.topUp(rfid, new BigDecimal("100000.00"), "CASH");
+        }
+    }
+
+    private void drive(HttpClient client, String baseUrl, String prefix, int kiosks, int rounds,
+                       Samples start, Samples pay) {
+        List<CompletableFuture<Void>> running = new ArrayList<>(kiosks);
+        for (int i = 0; i < kiosks; i++) {
+            String rfid = prefix + "-" + i;
+            CompletableFuture<Void> kiosk = CompletableFuture.completedFuture(null);
+            for (int round = 0; round < rounds; round++) {
+                kiosk = kiosk.thenCompose(ignored -> cycle(client, baseUrl, rfid, start, pay));
+            }
+            running.add(kiosk);
+        }
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private CompletableFuture<Void> cycle(HttpClient client, String baseUrl, String rfid, Samples start, Samples pay) {
+        long startBegin = System.nanoTime();
+        return send(client, post(baseUrl + "/api/visits/start",
+                "{\"rfidUid\":\"" + rfid + "\",\"department\":\"CARDIOLOGY\"}"))
+                .thenCompose(visit -> {
+                    start.record(startBegin, visit);
+                    if (visit.statusCode() != 200) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    long visitId = json(visit.body()).get("id").asLong();
+                    return send(client, HttpRequest.newBuilder(URI.create(baseUrl + "/api/billing/visit/" + visitId)).build())
+                            .thenCompose(bills -> {
+                                long billingId = pendingBill(bills.body());
+                                long payBegin = System.nanoTime();
+                                return send(client, post(baseUrl + "/api/billing/pay",
+                                        "{\"rfidUid\":\"" + rfid + "\",\"billingId\":" + billingId + "}"))
+                                        .thenAccept(paid -> pay.record(payBegin, paid));
+                            });
+                })
+                .exceptionally(e -> {
+                    start.errors.incrementAndGet();
+                    return null;
+                });
+    }
+
+    private static CompletableFuture<HttpResponse<String>> send(HttpClient client, HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private long pendingBill(String body) {
+        for (JsonNode bill : json(body)) {
+            if ("PENDING".equals(bill.get("status").asText())) {
+                return bill.get("id").asLong();
+            }
+        }
+        throw new IllegalStateException("No pending bill in " + body);
+    }
+
+    private JsonNode json(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Samples {
+        private final List<Long> nanos = new ArrayList<>();
+        private final AtomicInteger errors = new AtomicInteger();
+
+        void record(long begin, HttpResponse<String> response) {
+            long elapsed = System.nanoTime() - begin;
+            if (response.statusCode() != 200) {
+                errors.incrementAndGet();
+                return;
+            }
+            synchronized (nanos) {
+                nanos.add(elapsed);
+            }
+        }
+
+        double percentileMillis(double percentile) {
+            long[] sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    private record Result(Samples start, Samples pay, double seconds) {
+
+        void print(String threads) {
+            print(threads, "visits/start", start);
+            print(threads, "billing/pay", pay);
+        }
+
+        private void print(String threads, String endpoint, Samples samples) {
+            System.out.printf("%-10s %-14s %12.1f %10.1f %10.1f %8d%n", threads, endpoint,
+                    samples.nanos.size() / seconds, samples.percentileMillis(50), samples.percentileMillis(99),
+                    samples.errors.get());
+        }
+    }
+}
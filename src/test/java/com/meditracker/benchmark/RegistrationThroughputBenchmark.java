@@ -0,0 +1,72 @@
+package com.meditracker.benchmark;
+
+import com.meditracker.MeditrackerApplication;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.service.RegistrationService;
+import com.meditracker.service.VisitService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Registration + visit start throughput with the default JPA settings against the
+ * {@code perf} profile (pooled sequence ids, ordered JDBC batching). Single writer: H2
+ * hands out duplicate IDENTITY keys under concurrent inserts. Not part of the regular
+ * suite; run it explicitly:
+ * <pre>mvn test -Dtest=RegistrationThroughputBenchmark</pre>
+ */
+class RegistrationThroughputBenchmark {
+
+    private static final int WARMUP = 300;
+    private static final int MEASURED = 3000;
+
+    @Test
+    void compareDefaultAndPerfProfiles() throws Exception {
+        Result baseline = run("baseline", "test");
+        Result perf = run("perf", "test", "perf");
+
+        System.out.println();
+        System.out.printf("%-10s %12s %18s%n", "profile", "ops/sec", "statements/op");
+        System.out.printf("%-10s %12.1f %18.2f%n", "default", baseline.opsPerSecond, baseline.statementsPerOp);
+        System.out.printf("%-10s %12.1f %18.2f%n", "perf", perf.opsPerSecond, perf.statementsPerOp);
+        System.out.printf("speed-up: %.2fx%n%n", perf.opsPerSecond / baseline.opsPerSecond);
+    }
+
+    private Result run(String database, String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MeditrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-" + database
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--logging.level.com.meditracker=WARN")) {
+            RegistrationService registrationService = context.getBean(RegistrationService.class);
+            VisitService visitService = context.getBean(VisitService.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+
+            admit(registrationService, visitService, "WARM", WARMUP);
+            statistics.clear();
+            long started = System.nanoTime();
+            admit(registrationService, visitService, "BENCH", MEASURED);
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+            return new Result(MEASURED / seconds, (double) statistics.getPrepareStatementCount() / MEASURED);
+        }
+    }
+
+    private void admit(RegistrationService registrationService, VisitService visitService,
+                       String prefix, int patients) {
+        for (int i = 0; i < patients; i++) {
+            String rfid = prefix + "-" + i;
+            registrationService.registerOrFetch(rfid, "Benchmark " + rfid, null, null);
+            visitService.startVisit(rfid, Department.CARDIOLOGY);
+        }
+    }
+
+    private record Result(double opsPerSecond, double statementsPerOp) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.meditracker.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DoctorDirectoryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void doctorScreensRevalidateUntilADoctorChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/doctors/department/DERMATOLOGY"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/doctors/department/DERMATOLOGY").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/api/doctors").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fullName\":\"Dr. Skin New\",\"department\":\"DERMATOLOGY\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        String changed = mockMvc.perform(get("/api/doctors/department/DERMATOLOGY").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.fullName == 'Dr. Skin New')]").exists())
+                .andExpect(jsonPath("$[0].version").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+}
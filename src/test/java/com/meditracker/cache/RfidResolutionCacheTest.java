@@ -0,0 +1,116 @@
+package com.meditracker.cache;
+
+import com.meditracker.datasource.ReplicaLagGuard;
+import com.meditracker.domain.Patient;
+import com.meditracker.repository.PatientRepository;
+import com.meditracker.service.RegistrationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RfidResolutionCacheTest {
+
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private RfidResolutionCache rfidResolutionCache;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Test
+    void sizeAndTtlBoundTheCache() throws Exception {
+        for (String rfid : new String[] {"RFC-A", "RFC-B", "RFC-C"}) {
+            registrationService.registerOrFetch(rfid, "Cache " + rfid, null, null);
+        }
+        RfidResolutionCache cache = new RfidResolutionCache(patientRepository, replicaLagGuard, 2, Duration.ofMillis(300));
+
+        cache.resolve("RFC-A");
+        cache.resolve("RFC-A");
+        cache.resolve("RFC-B");
+        cache.resolve("RFC-C");
+        assertEquals(new RfidResolutionCache.Stats(2, 2, 1, 3, 1), cache.stats());
+
+        // A was least recently used and went first; unknown cards are never cached
+        cache.resolve("RFC-A");
+        assertTrue(cache.resolve("RFC-UNKNOWN").isEmpty());
+        assertEquals(new RfidResolutionCache.Stats(2, 2, 1, 5, 2), cache.stats());
+
+        Thread.sleep(400);
+        assertEquals("Cache RFC-A", cache.resolve("RFC-A").orElseThrow().patientName());
+        assertEquals(new RfidResolutionCache.Stats(2, 2, 1, 6, 3), cache.stats());
+    }
+
+    @Test
+    void patientChangesEvictOnlyOnceCommitted() {
+        registrationService.registerOrFetch("RFC-RENAME", "Before Rename", null, null);
+        assertEquals("Before Rename", rfidResolutionCache.resolve("RFC-RENAME").orElseThrow().patientName());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            rename("RFC-RENAME", "Rolled Back");
+            status.setRollbackOnly();
+        });
+        assertEquals("Before Rename", rfidResolutionCache.resolve("RFC-RENAME").orElseThrow().patientName());
+
+        long evictions = rfidResolutionCache.stats().evictions();
+        transactionTemplate.executeWithoutResult(status -> {
+            rename("RFC-RENAME", "After Rename");
+            assertEquals(evictions, rfidResolutionCache.stats().evictions());
+        });
+        assertEquals(evictions + 1, rfidResolutionCache.stats().evictions());
+        assertEquals("After Rename", rfidResolutionCache.resolve("RFC-RENAME").orElseThrow().patientName());
+    }
+
+    @Test
+    void loadThatRacesAnEvictionIsNotCached() {
+        registrationService.registerOrFetch("RFC-RACE", "Before Race", null, null);
+        Long patientId = patientRepository.findByRfidUid("RFC-RACE").orElseThrow().getId();
+        RfidResolutionCache[] cache = new RfidResolutionCache[1];
+        AtomicBoolean raced = new AtomicBoolean();
+        // Commits a rename, and the eviction its listener schedules, between the load and the put
+        PatientRepository racing = (PatientRepository) Proxy.newProxyInstance(
+                PatientRepository.class.getClassLoader(), new Class<?>[] {PatientRepository.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(patientRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (method.getName().equals("findResolutionByRfidUid") && raced.compareAndSet(false, true)) {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            rename("RFC-RACE", "After Race");
+                            cache[0].evictPatientAfterCommit(patientId);
+                        });
+                    }
+                    return result;
+                });
+        cache[0] = new RfidResolutionCache(racing, replicaLagGuard, 10, Duration.ofMinutes(30));
+
+        assertEquals("Before Race", cache[0].resolve("RFC-RACE").orElseThrow().patientName());
+        assertEquals(0, cache[0].stats().size());
+        assertEquals("After Race", cache[0].resolve("RFC-RACE").orElseThrow().patientName());
+        assertEquals(1, cache[0].stats().size());
+    }
+
+    private void rename(String rfidUid, String fullName) {
+        Patient patient = patientRepository.findByRfidUid(rfidUid).orElseThrow();
+        patient.setFullName(fullName);
+        patientRepository.flush();
+    }
+}
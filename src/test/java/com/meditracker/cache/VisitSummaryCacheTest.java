@@ -0,0 +1,156 @@
+package com.meditracker.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditracker.controller.dto.VisitSummaryDTO;
+import com.meditracker.domain.Billing;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.fixture.ClinicFixture;
+import com.meditracker.repository.BillingRepository;
+import com.meditracker.repository.VisitRepository;
+import com.meditracker.repository.VisitSummaryRecordRepository;
+import com.meditracker.service.LabService;
+import com.meditracker.service.VisitService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VisitSummaryCacheTest {
+
+    @Autowired
+    private ClinicFixture fixture;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private LabService labService;
+    @Autowired
+    private VisitRepository visitRepository;
+    @Autowired
+    private BillingRepository billingRepository;
+    @Autowired
+    private VisitSummaryRecordRepository visitSummaryRecordRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void dischargedSummaryIsServedWithoutQueries() {
+        VisitSummaryDTO discharged = discharge("SUMMARY-1");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        VisitSummaryDTO summary = visitService.getVisitSummary(discharged.getVisitId());
+
+        assertSame(discharged, summary);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        Visit visit = visitRepository.findById(discharged.getVisitId()).orElseThrow();
+        assertEquals(visit.getUpdatedAt(), summary.getDischargedAt());
+    }
+
+    @Test
+    void lateWriteToACompletedVisitRebuildsItsSummary() {
+        VisitSummaryDTO discharged = discharge("SUMMARY-2");
+
+        labService.orderTest(discharged.getVisitId(), "Lipid panel", new BigDecimal("200.00"));
+        VisitSummaryDTO summary = visitService.getVisitSummary(discharged.getVisitId());
+
+        assertEquals(1, summary.getLabTests().size());
+        assertEquals(0, new BigDecimal("200.00").compareTo(summary.getBilling().getTotalDue()));
+        assertSame(summary, visitService.getVisitSummary(discharged.getVisitId()));
+    }
+
+    @Test
+    void historyReusesCompletedSummariesAndRebuildsLiveVisits() {
+        VisitSummaryDTO discharged = discharge("SUMMARY-3");
+        Visit live = visitService.startVisit("SUMMARY-3", Department.CARDIOLOGY);
+
+        List<VisitSummaryDTO> before = visitService.getPatientVisitHistory("SUMMARY-3");
+        visitService.recordVitals(live.getId(), 37.2, 120, 80, 70);
+        List<VisitSummaryDTO> after = visitService.getPatientVisitHistory("SUMMARY-3");
+
+        assertEquals(List.of(live.getId(), discharged.getVisitId()),
+                after.stream().map(VisitSummaryDTO::getVisitId).toList());
+        assertSame(discharged, before.get(1));
+        assertSame(discharged, after.get(1));
+        assertEquals(120, after.get(0).getVitals().getBpSystolic());
+    }
+
+    @Test
+    void persistedSummariesOutliveTheInstanceThatStoredThem() {
+        VisitSummaryDTO discharged = discharge("SUMMARY-4");
+        VisitSummaryCache first = new VisitSummaryCache(visitSummaryRecordRepository, objectMapper, 10, true);
+        first.materialize(discharged, 1L, first.token());
+
+        VisitSummaryCache restarted = new VisitSummaryCache(visitSummaryRecordRepository, objectMapper, 10, true);
+        VisitSummaryDTO loaded = restarted.find(discharged.getVisitId()).orElseThrow();
+        assertEquals(discharged.getDischargedAt(), loaded.getDischargedAt());
+        assertEquals(discharged.getBilling().getTotalPaid(), loaded.getBilling().getTotalPaid());
+        assertTrue(loaded.getBilling().isFullyPaid());
+
+        transactionTemplate.executeWithoutResult(status -> restarted.evictAfterCommit(discharged.getVisitId()));
+        assertFalse(new VisitSummaryCache(visitSummaryRecordRepository, objectMapper, 10, true)
+                .find(discharged.getVisitId()).isPresent());
+    }
+
+    @Test
+    void readDuringAPatientEvictionDoesNotCacheTheStoredCopy() {
+        VisitSummaryDTO discharged = discharge("SUMMARY-5");
+        Long patientId = 5L;
+        VisitSummaryCache[] cache = new VisitSummaryCache[1];
+        AtomicBoolean readStale = new AtomicBoolean();
+        // Reads the stored copy just before the eviction deletes it
+        VisitSummaryRecordRepository racing = (VisitSummaryRecordRepository) Proxy.newProxyInstance(
+                VisitSummaryRecordRepository.class.getClassLoader(), new Class<?>[] {VisitSummaryRecordRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("deleteByPatientId")) {
+                        readStale.set(cache[0].find(discharged.getVisitId()).isPresent());
+                    }
+                    try {
+                        return method.invoke(visitSummaryRecordRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        new VisitSummaryCache(visitSummaryRecordRepository, objectMapper, 10, true)
+                .materialize(discharged, patientId, 0L);
+        cache[0] = new VisitSummaryCache(racing, objectMapper, 10, true);
+
+        cache[0].evictPatient(patientId);
+
+        assertTrue(readStale.get());
+        assertEquals(0, cache[0].stats().size());
+        assertFalse(cache[0].find(discharged.getVisitId()).isPresent());
+    }
+
+    // Paying through BillingService completes the visit itself, so the bills are settled directly
+    private VisitSummaryDTO discharge(String rfid) {
+        Visit visit = fixture.visit(rfid, Department.CARDIOLOGY);
+        List<Long> billIds = billingRepository.findByVisit(visit).stream()
+                .map(Billing::getId)
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> billingRepository.markPaid(billIds, LocalDateTime.now()));
+        return visitService.dischargePatient(rfid);
+    }
+}
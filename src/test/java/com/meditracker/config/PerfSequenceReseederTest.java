@@ -0,0 +1,53 @@
+package com.meditracker.config;
+
+import com.meditracker.MeditrackerApplication;
+import com.meditracker.domain.Patient;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.service.RegistrationService;
+import com.meditracker.service.VisitService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes rows with IDENTITY ids, then reopens the same database with the {@code perf}
+ * profile, whose sequences start out knowing nothing about those rows.
+ */
+class PerfSequenceReseederTest {
+
+    private static final String URL = "--spring.datasource.url=jdbc:h2:mem:reseed;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void perfProfileHandsOutIdsPastRowsWrittenWithoutIt() {
+        long[] last = null;
+        try (ConfigurableApplicationContext identity = start("test")) {
+            for (int i = 0; i < 60; i++) {
+                last = register(identity, "RESEED-ID-" + i);
+            }
+        }
+
+        try (ConfigurableApplicationContext perf = start("test", "perf")) {
+            long[] next = register(perf, "RESEED-PERF");
+            assertTrue(next[0] > last[0], "patient id reused");
+            assertTrue(next[1] > last[1], "visit id reused");
+        }
+    }
+
+    // Patient id and visit id
+    private static long[] register(ConfigurableApplicationContext context, String rfid) {
+        Patient patient = context.getBean(RegistrationService.class).registerOrFetch(rfid, "Patient " + rfid, null, null);
+        Visit visit = context.getBean(VisitService.class).startVisit(rfid, Department.CARDIOLOGY);
+        return new long[] {patient.getId(), visit.getId()};
+    }
+
+    private static ConfigurableApplicationContext start(String... profiles) {
+        return new SpringApplicationBuilder(MeditrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .run(URL, "--logging.level.com.meditracker=WARN");
+    }
+}
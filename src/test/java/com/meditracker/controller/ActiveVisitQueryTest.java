@@ -0,0 +1,73 @@
+package com.meditracker.controller;
+
+import com.meditracker.controller.dto.ActiveVisitDTO;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.fixture.ClinicFixture;
+import com.meditracker.repository.VisitRepository;
+import com.meditracker.service.BillingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ActiveVisitQueryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ClinicFixture fixture;
+    @Autowired
+    private BillingService billingService;
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Test
+    void activeVisitsLeaveOutCompletedOnesAndFilterByDepartment() throws Exception {
+        Visit open = fixture.visit("ACTIVE-1", Department.CARDIOLOGY);
+        Visit settled = fixture.visit("ACTIVE-2", Department.CARDIOLOGY);
+        billingService.payVisitBills("ACTIVE-2", settled.getId());
+        fixture.doctor(Department.NEUROLOGY, "Dr. Active Neuro");
+        Visit neuro = fixture.visit("ACTIVE-3", Department.NEUROLOGY);
+
+        mockMvc.perform(get("/api/visits/active"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.visitId == " + open.getId() + ")]").exists())
+                .andExpect(jsonPath("$[?(@.visitId == " + neuro.getId() + ")]").exists())
+                .andExpect(jsonPath("$[?(@.visitId == " + settled.getId() + ")]").doesNotExist())
+                .andExpect(jsonPath("$[?(@.status == 'COMPLETED')]").isEmpty());
+
+        mockMvc.perform(get("/api/visits/department/NEUROLOGY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.visitId == " + neuro.getId() + ")].doctorName").value("Dr. Active Neuro"))
+                .andExpect(jsonPath("$[?(@.visitId == " + open.getId() + ")]").doesNotExist())
+                .andExpect(jsonPath("$[?(@.department != 'NEUROLOGY')]").isEmpty());
+    }
+
+    @Test
+    void activeVisitsComeOldestFirst() {
+        fixture.visit("ACTIVE-4", Department.CARDIOLOGY);
+        fixture.visit("ACTIVE-5", Department.CARDIOLOGY);
+
+        List<LocalDateTime> all = visitRepository.findActiveVisits().stream()
+                .map(ActiveVisitDTO::getCreatedAt).toList();
+        List<LocalDateTime> cardiology = visitRepository.findActiveVisitsByDepartment(Department.CARDIOLOGY).stream()
+                .map(ActiveVisitDTO::getCreatedAt).toList();
+
+        assertEquals(all.stream().sorted().toList(), all);
+        assertEquals(cardiology.stream().sorted().toList(), cardiology);
+    }
+}
@@ -0,0 +1,159 @@
+package com.meditracker.controller;
+
+import com.meditracker.domain.LabTest;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.LabTestStatus;
+import com.meditracker.repository.LabTestRepository;
+import com.meditracker.service.BillingService;
+import com.meditracker.service.LabService;
+import com.meditracker.service.RegistrationService;
+import com.meditracker.service.VisitService;
+import com.meditracker.service.WalletService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private LabService labService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private BillingService billingService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private LabTestRepository labTestRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void unchangedSummaryIsRevalidatedWithOneQuery() throws Exception {
+        registrationService.registerOrFetch("ETAG-1", "Etag One", null, null);
+        Visit visit = visitService.startVisit("ETAG-1", Department.CARDIOLOGY);
+        LabTest test = labService.orderTest(visit.getId(), "CBC", new BigDecimal("150.00"));
+        String url = "/api/visits/" + visit.getId() + "/summary";
+
+        String etag = etagOf(url);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        labService.updateStatus(test.getId(), LabTestStatus.COMPLETED, "Normal");
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertNotEquals(etag, etagOf(url));
+    }
+
+    @Test
+    void historyLabAndBillingTagsFollowTheirRows() throws Exception {
+        registrationService.registerOrFetch("ETAG-2", "Etag Two", null, null);
+        Visit visit = visitService.startVisit("ETAG-2", Department.CARDIOLOGY);
+        labService.orderTest(visit.getId(), "X-Ray", new BigDecimal("80.00"));
+        String history = "/api/visits/history/ETAG-2";
+        String lab = "/api/lab/visit/" + visit.getId();
+        String bills = "/api/billing/visit/" + visit.getId();
+
+        String historyTag = etagOf(history);
+        String labTag = etagOf(lab);
+        String billsTag = etagOf(bills);
+        for (String[] unchanged : new String[][] {{history, historyTag}, {lab, labTag}, {bills, billsTag}}) {
+            mockMvc.perform(get(unchanged[0]).header(HttpHeaders.IF_NONE_MATCH, unchanged[1]))
+                    .andExpect(status().isNotModified());
+        }
+
+        // Paying changes the bills and the history, not the lab tests
+        walletService.topUp("ETAG-2", new BigDecimal("1000.00"), "CASH");
+        billingService.payVisitBills("ETAG-2", visit.getId());
+        mockMvc.perform(get(lab).header(HttpHeaders.IF_NONE_MATCH, labTag))
+                .andExpect(status().isNotModified());
+        assertNotEquals(billsTag, etagOf(bills));
+        assertNotEquals(historyTag, etagOf(history));
+    }
+
+    @Test
+    void writeStampedBeforeANewerOneStillChangesTheTag() throws Exception {
+        registrationService.registerOrFetch("ETAG-4", "Etag Four", null, null);
+        Visit visit = visitService.startVisit("ETAG-4", Department.CARDIOLOGY);
+        LabTest first = labService.orderTest(visit.getId(), "CBC", new BigDecimal("150.00"));
+        LabTest second = labService.orderTest(visit.getId(), "ECG", new BigDecimal("200.00"));
+        // A write stamped later by a faster clock, or by a transaction that committed first
+        jdbcTemplate.update("update lab_tests set updated_at = ? where id = ?",
+                LocalDateTime.now().plusHours(1), second.getId());
+        String url = "/api/lab/visit/" + visit.getId();
+        String etag = etagOf(url);
+
+        transactionTemplate.executeWithoutResult(status ->
+                labTestRepository.findById(first.getId()).orElseThrow().setResultText("Pending review"));
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void largeJsonResponsesAreGzipped() throws Exception {
+        registrationService.registerOrFetch("ETAG-3", "Etag Three", null, null);
+        for (int i = 0; i < 4; i++) {
+            Visit visit = visitService.startVisit("ETAG-3", Department.CARDIOLOGY);
+            labService.orderTest(visit.getId(), "Lipid panel " + i, new BigDecimal("300.00"));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/visits/history/ETAG-3"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+    }
+
+    private String etagOf(String url) throws Exception {
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag, url);
+        return etag;
+    }
+}
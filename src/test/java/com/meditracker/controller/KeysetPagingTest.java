@@ -0,0 +1,74 @@
+package com.meditracker.controller;
+
+import com.meditracker.controller.support.KeysetCursor;
+import com.meditracker.domain.Patient;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.service.RegistrationService;
+import com.meditracker.service.VisitService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class KeysetPagingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private VisitService visitService;
+
+    @Test
+    void patientVisitsArePagedById() throws Exception {
+        Patient patient = registrationService.registerOrFetch("PAGE-1", "Page One", null, null);
+        List<Long> visitIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            visitIds.add(visitService.startVisit("PAGE-1", Department.CARDIOLOGY).getId());
+        }
+        String url = "/api/patients/" + patient.getId() + "/visits";
+
+        String next = mockMvc.perform(get(url).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(visitIds.get(0)))
+                .andExpect(jsonPath("$[1].id").value(visitIds.get(1)))
+                .andReturn().getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get(url).param("size", "2").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(visitIds.get(2)))
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void visitsByStatusSeekPastTheCursor() throws Exception {
+        registrationService.registerOrFetch("PAGE-2", "Page Two", null, null);
+        Visit visit = visitService.startVisit("PAGE-2", Department.CARDIOLOGY);
+        visitService.recordVitals(visit.getId(), 36.8, 118, 76, 70);
+
+        mockMvc.perform(get("/api/visits/status/VITALS")
+                        .param("cursor", KeysetCursor.encode(visit.getId() - 1)).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(visit.getId()))
+                .andExpect(jsonPath("$[0].status").value("VITALS"));
+        mockMvc.perform(get("/api/visits/status/VITALS").param("cursor", KeysetCursor.encode(visit.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+}
@@ -0,0 +1,93 @@
+package com.meditracker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditracker.controller.dto.BillingResponse;
+import com.meditracker.controller.dto.LabTestDTO;
+import com.meditracker.controller.dto.PatientResponse;
+import com.meditracker.controller.dto.VisitResponse;
+import com.meditracker.controller.dto.WalletResponse;
+import com.meditracker.domain.Billing;
+import com.meditracker.domain.LabTest;
+import com.meditracker.domain.Patient;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.Wallet;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.LabTestStatus;
+import com.meditracker.service.BillingService;
+import com.meditracker.service.LabService;
+import com.meditracker.service.RegistrationService;
+import com.meditracker.service.VisitService;
+import com.meditracker.service.WalletService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Controllers map what a service returns after its transaction has ended; building and
+ * writing the response must not go back to the database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ResponseMappingTest {
+
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private LabService labService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private BillingService billingService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void responsesAreBuiltWithoutQueriesAfterTheServiceReturns() throws Exception {
+        Patient patient = registrationService.registerOrFetch("MAP-1", "Mapping One", "555-0101", null);
+        assertNoQueries(() -> new PatientResponse(patient));
+
+        Visit visit = visitService.startVisit("MAP-1", Department.CARDIOLOGY);
+        assertNoQueries(() -> VisitResponse.fromVisit(visit));
+        Visit withVitals = visitService.recordVitals(visit.getId(), 37.1, 120, 80, 72);
+        assertNoQueries(() -> VisitResponse.fromVisit(withVitals));
+        Visit consulted = visitService.addConsultation(visit.getId(), "Flu", "Rest", true);
+        assertNoQueries(() -> VisitResponse.fromVisit(consulted));
+
+        LabTest ordered = labService.orderTest(visit.getId(), "CBC", new BigDecimal("150.00"));
+        assertNoQueries(() -> LabTestDTO.fromLabTest(ordered));
+        LabTest completed = labService.updateStatus(ordered.getId(), LabTestStatus.COMPLETED, "Normal");
+        assertNoQueries(() -> LabTestDTO.fromLabTest(completed));
+
+        WalletResponse toppedUp = walletService.topUp("MAP-1", new BigDecimal("50.00"), "CASH");
+        assertEquals(new BigDecimal("1050.00"), toppedUp.getBalance());
+        Wallet wallet = walletService.getWalletByRfid("MAP-1");
+        String walletJson = assertNoQueries(() -> WalletResponse.fromWallet(wallet));
+        assertFalse(walletJson.contains("snapshot"), walletJson);
+
+        List<Billing> bills = billingService.getByVisit(visit.getId());
+        assertNoQueries(() -> bills.stream().map(BillingResponse::fromBilling).toList());
+    }
+
+    private String assertNoQueries(Callable<?> mapping) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        String json = objectMapper.writeValueAsString(mapping.call());
+        assertEquals(0, statistics.getPrepareStatementCount(), json);
+        return json;
+    }
+}
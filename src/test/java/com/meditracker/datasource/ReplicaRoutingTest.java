@@ -0,0 +1,115 @@
+package com.meditracker.datasource;
+
+import com.meditracker.cache.RfidResolutionCache;
+import com.meditracker.domain.Patient;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.service.RegistrationService;
+import com.meditracker.service.VisitService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Primary and replica are two pools on the same in-memory database; each pool tags its
+ * connections with {@code @POOL} so a query can tell which one it ran on.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;INIT=SET @POOL='primary'",
+        "meditracker.datasource.replicas[0].url=jdbc:h2:mem:routing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;INIT=SET @POOL='replica'",
+        "meditracker.datasource.replica-lag-window=PT0.5S"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private RfidResolutionCache rfidResolutionCache;
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndWritesUsePrimary() {
+        assertEquals("replica", inTransaction(true, this::currentPool));
+        assertEquals("primary", inTransaction(false, this::currentPool));
+        assertEquals("primary", currentPool());
+    }
+
+    @Test
+    void readsOfRecentlyWrittenVisitStayOnPrimaryUntilWindowPasses() throws InterruptedException {
+        Patient patient = registrationService.registerOrFetch("ROUTING-1", "Routing Patient", null, null);
+        Visit visit = visitService.startVisit("ROUTING-1", Department.CARDIOLOGY);
+
+        assertEquals("primary", inTransaction(true, () -> {
+            replicaLagGuard.readingVisit(visit.getId());
+            return currentPool();
+        }));
+        assertEquals("primary", inTransaction(true, () -> {
+            replicaLagGuard.readingPatient(patient.getId());
+            return currentPool();
+        }));
+        // The pin ends with its transaction
+        assertEquals("replica", inTransaction(true, this::currentPool));
+
+        Thread.sleep(600);
+        assertEquals("replica", inTransaction(true, () -> {
+            replicaLagGuard.readingVisit(visit.getId());
+            return currentPool();
+        }));
+    }
+
+    @Test
+    void rfidLookupThatMissesTheCachePinsItsReadToPrimary() {
+        registrationService.registerOrFetch("ROUTING-2", "Routing Lookup", null, null);
+        rfidResolutionCache.evict("ROUTING-2");
+
+        // The lookup runs before the caller knows the patient it could pin
+        assertEquals("primary", inTransaction(true, () -> {
+            rfidResolutionCache.resolve("ROUTING-2").orElseThrow();
+            return currentPool();
+        }));
+        assertEquals("replica", inTransaction(true, () -> {
+            rfidResolutionCache.resolve("ROUTING-2").orElseThrow();
+            return currentPool();
+        }));
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinReads() {
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        write.executeWithoutResult(status -> {
+            replicaLagGuard.recordWrite(424242L, null);
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", inTransaction(true, () -> {
+            replicaLagGuard.readingPatient(424242L);
+            return currentPool();
+        }));
+    }
+
+    private String currentPool() {
+        return jdbcTemplate.queryForObject("select @POOL", String.class);
+    }
+
+    private <T> T inTransaction(boolean readOnly, Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> work.get());
+    }
+}
@@ -0,0 +1,32 @@
+package com.meditracker.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void convertsExactlyAtTheBoundary() {
+        assertEquals(30_000, Money.of(new BigDecimal("300")).minor());
+        assertEquals(new BigDecimal("0.05"), Money.ofMinor(5).toBigDecimal());
+        assertEquals(Money.ofMinor(-150), Money.of(new BigDecimal("1.00")).minus(Money.of(new BigDecimal("2.50"))));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("10.005")));
+    }
+
+    @Test
+    void serializesAsAPlainNumber() throws Exception {
+        Billing bill = new Billing();
+        bill.setAmount(Money.of(new BigDecimal("1250.5")));
+
+        assertTrue(objectMapper.writeValueAsString(bill).contains("\"amount\":1250.50"));
+        assertEquals(Money.ofMinor(125_050), objectMapper.readValue("1250.50", Money.class));
+    }
+}
@@ -0,0 +1,44 @@
+package com.meditracker.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** With every pooled connection taken, a request fails within connection-timeout as a 503. */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:saturation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PoolSaturationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void exhaustedPoolAnswersServiceUnavailable() throws Exception {
+        try (Connection held = dataSource.getConnection()) {
+            mockMvc.perform(get("/api/visits/1/summary"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.status").value(503));
+        }
+        mockMvc.perform(get("/api/visits/1/summary"))
+                .andExpect(status().isBadRequest());
+    }
+}
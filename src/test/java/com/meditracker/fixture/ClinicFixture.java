@@ -0,0 +1,57 @@
+package com.meditracker.fixture;
+
+import com.meditracker.assignment.DoctorAssignmentEngine;
+import com.meditracker.cache.DoctorDirectory;
+import com.meditracker.domain.Doctor;
+import com.meditracker.domain.Patient;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.repository.DoctorRepository;
+import com.meditracker.service.RegistrationService;
+import com.meditracker.service.VisitService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Patients, visits and doctors for integration tests. Only cardiology has a seeded doctor,
+ * so tests that need their own department queue add a doctor to it first.
+ */
+@Component
+public class ClinicFixture {
+
+    private final DoctorRepository doctorRepository;
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorAssignmentEngine doctorAssignment;
+    private final RegistrationService registrationService;
+    private final VisitService visitService;
+
+    public ClinicFixture(DoctorRepository doctorRepository, DoctorDirectory doctorDirectory,
+                         DoctorAssignmentEngine doctorAssignment, RegistrationService registrationService,
+                         VisitService visitService) {
+        this.doctorRepository = doctorRepository;
+        this.doctorDirectory = doctorDirectory;
+        this.doctorAssignment = doctorAssignment;
+        this.registrationService = registrationService;
+        this.visitService = visitService;
+    }
+
+    public Patient patient(String rfid) {
+        return registrationService.registerOrFetch(rfid, "Patient " + rfid, null, null);
+    }
+
+    public Visit visit(String rfid, Department department) {
+        patient(rfid);
+        return visitService.startVisit(rfid, department);
+    }
+
+    /** Saves a doctor and makes it assignable straight away. */
+    public Doctor doctor(Department department, String name) {
+        Doctor doctor = new Doctor();
+        doctor.setFullName(name);
+        doctor.setDepartment(department);
+        doctor.setConsultationFee(Doctor.DEFAULT_CONSULTATION_FEE);
+        Doctor saved = doctorRepository.save(doctor);
+        doctorDirectory.refresh();
+        doctorAssignment.doctorSaved(saved);
+        return saved;
+    }
+}
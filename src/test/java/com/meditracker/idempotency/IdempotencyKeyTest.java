@@ -0,0 +1,123 @@
+package com.meditracker.idempotency;
+
+import com.meditracker.domain.Patient;
+import com.meditracker.domain.Visit;
+import com.meditracker.repository.BillingRepository;
+import com.meditracker.repository.LabTestRepository;
+import com.meditracker.repository.VisitRepository;
+import com.meditracker.service.RegistrationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyKeyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private VisitRepository visitRepository;
+    @Autowired
+    private LabTestRepository labTestRepository;
+    @Autowired
+    private BillingRepository billingRepository;
+
+    @Test
+    void retriedVisitStartReplaysTheFirstResponse() throws Exception {
+        Patient patient = registrationService.registerOrFetch("IDEM-1", "Idem One", null, null);
+        String body = "{\"rfidUid\":\"IDEM-1\",\"department\":\"CARDIOLOGY\"}";
+
+        MvcResult first = mockMvc.perform(post("/api/visits/start").header("Idempotency-Key", "start-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyKeyFilter.REPLAYED_HEADER))
+                .andReturn();
+        MvcResult retry = mockMvc.perform(post("/api/visits/start").header("Idempotency-Key", "start-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyKeyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        assertEquals(1, visitRepository.findHistoryRefsByPatientId(patient.getId()).size());
+
+        mockMvc.perform(post("/api/visits/start").header("Idempotency-Key", "start-2")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        assertEquals(2, visitRepository.findHistoryRefsByPatientId(patient.getId()).size());
+    }
+
+    @Test
+    void retriedLabOrderCreatesOneTestAndOneBill() throws Exception {
+        registrationService.registerOrFetch("IDEM-2", "Idem Two", null, null);
+        String visit = mockMvc.perform(post("/api/visits/start")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"rfidUid\":\"IDEM-2\",\"department\":\"CARDIOLOGY\"}"))
+                .andReturn().getResponse().getContentAsString();
+        long visitId = Long.parseLong(visit.replaceAll(".*?\"id\":(\\d+).*", "$1"));
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            mockMvc.perform(post("/api/lab/" + visitId + "/order").header("Idempotency-Key", "order-1")
+                            .contentType(MediaType.APPLICATION_JSON).content("{\"testName\":\"CBC\",\"price\":150.00}"))
+                    .andExpect(status().isOk());
+        }
+
+        Visit started = visitRepository.findById(visitId).orElseThrow();
+        assertEquals(1, labTestRepository.findByVisit(started).size());
+        assertEquals(2, billingRepository.findByVisit(started).size());
+    }
+
+    @Test
+    void keyReusedWithADifferentBodyIsRejected() throws Exception {
+        Patient patient = registrationService.registerOrFetch("IDEM-3", "Idem Three", null, null);
+        mockMvc.perform(post("/api/visits/start").header("Idempotency-Key", "reuse-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rfidUid\":\"IDEM-3\",\"department\":\"CARDIOLOGY\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/visits/start").header("Idempotency-Key", "reuse-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rfidUid\":\"IDEM-3\",\"department\":\"ORTHOPEDICS\"}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist(IdempotencyKeyFilter.REPLAYED_HEADER));
+        assertEquals(1, visitRepository.findHistoryRefsByPatientId(patient.getId()).size());
+    }
+
+    @Test
+    void oversizedBodiesAreRejectedBeforeBuffering() throws Exception {
+        Patient patient = registrationService.registerOrFetch("IDEM-4", "Idem Four", null, null);
+        String padding = " ".repeat(70 * 1024);
+        mockMvc.perform(post("/api/visits/start").header("Idempotency-Key", "large-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rfidUid\":\"IDEM-4\",\"department\":\"CARDIOLOGY\"}" + padding))
+                .andExpect(status().isPayloadTooLarge());
+        assertEquals(0, visitRepository.findHistoryRefsByPatientId(patient.getId()).size());
+    }
+
+    @Test
+    void failedRequestsAreNotStored() throws Exception {
+        String body = "{\"rfidUid\":\"IDEM-LATE\",\"department\":\"CARDIOLOGY\"}";
+        mockMvc.perform(post("/api/visits/start").header("Idempotency-Key", "late-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+
+        registrationService.registerOrFetch("IDEM-LATE", "Idem Late", null, null);
+        mockMvc.perform(post("/api/visits/start").header("Idempotency-Key", "late-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyKeyFilter.REPLAYED_HEADER));
+    }
+}
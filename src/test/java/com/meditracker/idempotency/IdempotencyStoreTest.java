@@ -0,0 +1,47 @@
+package com.meditracker.idempotency;
+
+import com.meditracker.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyStoreTest {
+
+    private static final String BODY = IdempotencyStore.bodyHash(new byte[] {1});
+
+    @Test
+    void inFlightClaimsSurviveEviction() {
+        IdempotencyStore store = new IdempotencyStore(null, 2, Duration.ofHours(1), false);
+        assertNull(store.claim("running", BODY));
+        for (int i = 0; i < 5; i++) {
+            String scope = "done-" + i;
+            assertNull(store.claim(scope, BODY));
+            store.complete(scope, new StoredResponse(200, null, new byte[] {(byte) i}));
+        }
+
+        assertThrows(IllegalStateException.class, () -> store.claim("running", BODY));
+        assertNull(store.claim("done-0", BODY));
+        assertArrayEquals(new byte[] {4}, store.claim("done-4", BODY).body());
+    }
+
+    @Test
+    void failedLookupOfAPersistedResponseReleasesTheClaim() {
+        IdempotencyRecordRepository unavailable = (IdempotencyRecordRepository) Proxy.newProxyInstance(
+                IdempotencyRecordRepository.class.getClassLoader(), new Class<?>[] {IdempotencyRecordRepository.class},
+                (proxy, method, args) -> {
+                    throw new CannotCreateTransactionException("Connection is not available");
+                });
+        IdempotencyStore store = new IdempotencyStore(unavailable, 10, Duration.ofHours(1), true);
+
+        assertThrows(CannotCreateTransactionException.class, () -> store.claim("outage", BODY));
+        assertThrows(CannotCreateTransactionException.class, () -> store.claim("outage", BODY));
+        assertEquals(0, store.stats().size());
+    }
+}
@@ -0,0 +1,120 @@
+package com.meditracker.ledger;
+
+import com.meditracker.domain.Money;
+import com.meditracker.domain.Wallet;
+import com.meditracker.domain.WalletTransaction;
+import com.meditracker.fixture.ClinicFixture;
+import com.meditracker.repository.WalletRepository;
+import com.meditracker.repository.WalletTransactionRepository;
+import com.meditracker.service.WalletLedgerService;
+import com.meditracker.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WalletLedgerTest {
+
+    @Autowired
+    private ClinicFixture fixture;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private WalletLedgerService walletLedgerService;
+    @Autowired
+    private WalletSnapshotCompactor compactor;
+    @Autowired
+    private WalletRepository walletRepository;
+    @Autowired
+    private WalletTransactionRepository walletTransactionRepository;
+
+    @Test
+    void movementsAreInsertsAndTheSnapshotOnlyMovesOnCompaction() {
+        Long walletId = register("LEDGER-1");
+        walletService.topUp("LEDGER-1", new BigDecimal("250.00"), "UPI");
+        walletLedgerService.debit(walletId, money("400.00"), null, "Pharmacy");
+
+        Wallet wallet = walletRepository.findById(walletId).orElseThrow();
+        assertEquals(money("850.00"), wallet.getBalance());
+        assertEquals(Money.ZERO, wallet.getSnapshotBalance());
+        assertEquals(0, wallet.getSnapshotSeq());
+        List<WalletTransaction> ledger = walletTransactionRepository.findByWalletIdOrderByIdDesc(walletId);
+        assertEquals(List.of(3L, 2L, 1L), ledger.stream().map(WalletTransaction::getSeq).toList());
+
+        assertTrue(compactor.compact(walletId));
+        assertFalse(compactor.compact(walletId));
+
+        Wallet compacted = walletService.getWalletByRfid("LEDGER-1");
+        assertEquals(money("850.00"), compacted.getSnapshotBalance());
+        assertEquals(3, compacted.getSnapshotSeq());
+        assertEquals(money("850.00"), compacted.getBalance());
+        assertEquals(3, walletTransactionRepository.countByWalletId(walletId));
+    }
+
+    @Test
+    void balanceChecksSeeRowsOnBothSidesOfTheSnapshot() {
+        Long walletId = register("LEDGER-2");
+        walletLedgerService.debit(walletId, money("300.00"), null, "Scan");
+        compactor.compact(walletId);
+        walletLedgerService.credit(walletId, money("50.00"), "Refund");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> walletLedgerService.debit(walletId, money("750.01"), null, "Surgery"));
+        assertEquals("Insufficient wallet balance", e.getMessage());
+        assertEquals(Money.ZERO, walletLedgerService.debit(walletId, money("750.00"), null, "Surgery"));
+        assertEquals(Money.ZERO, walletRepository.findBalanceById(walletId));
+        assertEquals(4, walletTransactionRepository.countByWalletId(walletId));
+    }
+
+    @Test
+    void longTailsAreQueuedForTheBackgroundCompactor() {
+        Long walletId = register("LEDGER-3");
+        for (int i = 0; i < 20; i++) {
+            walletLedgerService.debit(walletId, money("1.00"), null, "Vending " + i);
+        }
+
+        compactor.compactPending();
+
+        Wallet wallet = walletRepository.findById(walletId).orElseThrow();
+        assertEquals(21, wallet.getSnapshotSeq());
+        assertEquals(money("980.00"), wallet.getSnapshotBalance());
+        assertEquals(money("980.00"), wallet.getBalance());
+    }
+
+    @Test
+    void inactiveWalletsTakeNoMovements() {
+        Long walletId = register("LEDGER-4");
+        Wallet wallet = walletRepository.findById(walletId).orElseThrow();
+        wallet.setActive(false);
+        walletRepository.save(wallet);
+
+        IllegalStateException debit = assertThrows(IllegalStateException.class,
+                () -> walletLedgerService.debit(walletId, money("1.00"), null, "Pharmacy"));
+        IllegalStateException credit = assertThrows(IllegalStateException.class,
+                () -> walletService.topUp("LEDGER-4", new BigDecimal("100.00"), "UPI"));
+
+        assertEquals("Wallet is inactive", debit.getMessage());
+        assertEquals("Wallet is inactive", credit.getMessage());
+        assertEquals(1, walletTransactionRepository.countByWalletId(walletId));
+        assertEquals(money("1000.00"), walletRepository.findBalanceById(walletId));
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+
+    private Long register(String rfid) {
+        fixture.patient(rfid);
+        return walletService.getWalletByRfid(rfid).getId();
+    }
+}
@@ -0,0 +1,46 @@
+package com.meditracker.metrics;
+
+import com.meditracker.domain.enums.Department;
+import com.meditracker.service.VisitService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ServiceTimingAspectTest {
+
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void callsAreTimedPerMethodAndOutcome() {
+        assertThrows(IllegalArgumentException.class,
+                () -> visitService.startVisit("TIMED-UNKNOWN", Department.CARDIOLOGY));
+        Timer failed = timer("IllegalArgumentException");
+        long before = failed.count();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> visitService.startVisit("TIMED-UNKNOWN", Department.CARDIOLOGY));
+        }
+
+        assertEquals(before + 3, failed.count());
+    }
+
+    private Timer timer(String outcome) {
+        return registry.get(ServiceTimingAspect.METRIC)
+                .tag("service", "VisitService")
+                .tag("method", "startVisit")
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,57 @@
+package com.meditracker.metrics;
+
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.fixture.ClinicFixture;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlTraceFilterTest {
+
+    private static final String ROUTE = "/api/visits/{visitId}/summary";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ClinicFixture fixture;
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void statementsAreRecordedPerRoute() throws Exception {
+        Visit visit = fixture.visit("TRACE-1", Department.CARDIOLOGY);
+        mockMvc.perform(get("/api/visits/" + visit.getId() + "/summary")).andExpect(status().isOk());
+        DistributionSummary statements = statements();
+        long requests = statements.count();
+        double recorded = statements.totalAmount();
+
+        String count = mockMvc.perform(get("/api/visits/" + visit.getId() + "/summary"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlTraceFilter.SQL_COUNT_HEADER))
+                .andReturn().getResponse().getHeader(SqlTraceFilter.SQL_COUNT_HEADER);
+
+        assertEquals(requests + 1, statements().count());
+        assertEquals(recorded + Integer.parseInt(count), statements().totalAmount());
+    }
+
+    private DistributionSummary statements() {
+        return registry.get("meditracker.http.sql.statements")
+                .tag("method", "GET")
+                .tag("uri", ROUTE)
+                .summary();
+    }
+}
@@ -0,0 +1,166 @@
+package com.meditracker.notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationDispatcherTest {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private NotificationDispatcher dispatcher;
+    @Autowired
+    private StubSender smsSender;
+
+    @Test
+    void dispatchesOnlyAfterTheTransactionCommits() throws Exception {
+        long enqueuedBefore = dispatcher.stats().enqueued();
+        CountDownLatch delivered = smsSender.expect(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(sms(41L, "Committed"));
+            assertEquals(enqueuedBefore, dispatcher.stats().enqueued());
+        });
+        assertTrue(delivered.await(5, TimeUnit.SECONDS), "not sent after commit");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(sms(42L, "Rolled back"));
+            status.setRollbackOnly();
+        });
+        assertEquals(enqueuedBefore + 1, dispatcher.stats().enqueued());
+        assertEquals(List.of("Committed"), smsSender.titles());
+    }
+
+    @Test
+    void retriesAFailingBatchUpToMaxAttempts() throws Exception {
+        StubSender failing = new StubSender(NotificationChannel.SMS, Integer.MAX_VALUE);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        NotificationDispatcher retrying = dispatcher(failing, 10, 1, registry);
+        CountDownLatch attempted = failing.expect(3);
+        retrying.start();
+        try {
+            assertTrue(retrying.enqueue(sms(7L, "Lab ready")));
+            assertTrue(attempted.await(5, TimeUnit.SECONDS), "not retried");
+            awaitFailed(retrying, 1);
+        } finally {
+            retrying.stop();
+        }
+
+        assertEquals(3, failing.attempts());
+        NotificationDispatcher.Stats stats = retrying.stats();
+        assertEquals(2, stats.retries());
+        assertEquals(0, stats.sent());
+        assertEquals(1, registry.get(NotificationDispatcher.SEND_METRIC).tag("channel", "SMS").timer().count());
+    }
+
+    @Test
+    void countsAMessageAsDroppedWhenTheQueueIsFull() {
+        // Never started, so nothing drains the single slot
+        NotificationDispatcher full = dispatcher(new StubSender(NotificationChannel.SMS, 0), 1, 0,
+                new SimpleMeterRegistry());
+
+        assertTrue(full.enqueue(sms(1L, "First")));
+        assertFalse(full.enqueue(sms(2L, "Second")));
+
+        NotificationDispatcher.Stats stats = full.stats();
+        assertEquals(1, stats.enqueued());
+        assertEquals(1, stats.dropped());
+        assertEquals(1, stats.queueDepth());
+    }
+
+    private static NotificationDispatcher dispatcher(StubSender sender, int capacity, int workers,
+                                                     MeterRegistry registry) {
+        return new NotificationDispatcher(List.of(sender), capacity, workers, 10, 3,
+                Duration.ofMillis(1), Duration.ZERO, new MockEnvironment(), registry);
+    }
+
+    private static void awaitFailed(NotificationDispatcher dispatcher, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.stats().failed() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, dispatcher.stats().failed());
+    }
+
+    private static Notification sms(Long patientId, String title) {
+        return new Notification(NotificationChannel.SMS, patientId, title, "body");
+    }
+
+    @TestConfiguration
+    static class StubSenderConfig {
+        @Bean
+        StubSender smsSender() {
+            return new StubSender(NotificationChannel.SMS, 0);
+        }
+    }
+
+    /** Records every attempt and fails the first {@code failures} of them. */
+    static class StubSender implements NotificationSender {
+
+        private final NotificationChannel channel;
+        private final int failures;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final List<String> titles = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch latch = new CountDownLatch(0);
+
+        StubSender(NotificationChannel channel, int failures) {
+            this.channel = channel;
+            this.failures = failures;
+        }
+
+        CountDownLatch expect(int attempts) {
+            latch = new CountDownLatch(attempts);
+            return latch;
+        }
+
+        int attempts() {
+            return attempts.get();
+        }
+
+        List<String> titles() {
+            return titles;
+        }
+
+        @Override
+        public NotificationChannel channel() {
+            return channel;
+        }
+
+        @Override
+        public void send(List<Notification> batch) throws Exception {
+            int attempt = attempts.incrementAndGet();
+            try {
+                if (attempt <= failures) {
+                    throw new Exception("gateway unavailable");
+                }
+                batch.forEach(n -> titles.add(n.title()));
+            } finally {
+                latch.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.meditracker.queue;
+
+import com.meditracker.controller.dto.ActiveVisitDTO;
+import com.meditracker.domain.Patient;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.service.RegistrationService;
+import com.meditracker.service.VisitService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DepartmentQueueBoardTest {
+
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private DepartmentQueueBoard board;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void cardTapPublishesWithoutLoadingThePatient() {
+        registrationService.registerOrFetch("QUEUE-1", "Queue One", null, null);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Visit visit = visitService.startVisit("QUEUE-1", Department.CARDIOLOGY);
+
+        assertEquals(0, statistics.getEntityStatistics(Patient.class.getName()).getLoadCount());
+        ActiveVisitDTO queued = board.snapshot(Department.CARDIOLOGY).stream()
+                .filter(v -> v.getVisitId().equals(visit.getId()))
+                .findFirst().orElseThrow();
+        assertEquals("Queue One", queued.getPatientName());
+        assertEquals("QUEUE-1", queued.getRfidUid());
+    }
+}
@@ -0,0 +1,118 @@
+package com.meditracker.queue;
+
+import com.meditracker.controller.dto.LabTestDTO;
+import com.meditracker.domain.LabTest;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.LabTestStatus;
+import com.meditracker.fixture.ClinicFixture;
+import com.meditracker.repository.LabTestRepository;
+import com.meditracker.service.LabService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LabWorklistTest {
+
+    @Autowired
+    private ClinicFixture fixture;
+    @Autowired
+    private LabService labService;
+    @Autowired
+    private LabTestRepository labTestRepository;
+    @Autowired
+    private LabWorklist labWorklist;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void urgentTestsAreHandedOutFirstThenOldestFirst() {
+        fixture.doctor(Department.ORTHOPEDICS, "Dr. Bones");
+        Visit visit = fixture.visit("LAB-PRIO", Department.ORTHOPEDICS);
+        LabTest routine = labService.orderTest(visit.getId(), "X-Ray", new BigDecimal("80.00"));
+        LabTest urgent = labService.orderTest(visit.getId(), "CT", new BigDecimal("400.00"), true);
+        LabTest later = labService.orderTest(visit.getId(), "Bone density", new BigDecimal("120.00"));
+
+        assertEquals(List.of(urgent.getId(), routine.getId(), later.getId()),
+                labWorklist.snapshot(Department.ORTHOPEDICS).stream().map(LabTestDTO::getId).toList());
+
+        LabTest first = labService.claimNext("tech-1", Department.ORTHOPEDICS).orElseThrow();
+        assertEquals(urgent.getId(), first.getId());
+        assertEquals(LabTestStatus.IN_PROGRESS, first.getStatus());
+        assertEquals("tech-1", first.getClaimedBy());
+        assertEquals(routine.getId(), labService.claimNext("tech-2", Department.ORTHOPEDICS).orElseThrow().getId());
+
+        labService.updateStatus(urgent.getId(), LabTestStatus.COMPLETED, "No fracture");
+        assertEquals(List.of(later.getId(), routine.getId()),
+                labWorklist.snapshot(Department.ORTHOPEDICS).stream().map(LabTestDTO::getId).toList());
+        labService.claimNext("tech-1", Department.ORTHOPEDICS).orElseThrow();
+    }
+
+    @Test
+    void concurrentTechniciansNeverClaimTheSameTest() throws Exception {
+        fixture.doctor(Department.DERMATOLOGY, "Dr. Skin");
+        Visit visit = fixture.visit("LAB-RACE", Department.DERMATOLOGY);
+        Set<Long> ordered = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            ordered.add(labService.orderTest(visit.getId(), "Biopsy " + i, new BigDecimal("50.00")).getId());
+        }
+
+        ExecutorService technicians = Executors.newFixedThreadPool(6);
+        List<Future<List<Long>>> results = new ArrayList<>();
+        for (int t = 0; t < 6; t++) {
+            String technician = "tech-" + t;
+            Callable<List<Long>> drain = () -> {
+                List<Long> claimed = new ArrayList<>();
+                Optional<LabTest> next;
+                while ((next = labService.claimNext(technician, Department.DERMATOLOGY)).isPresent()) {
+                    claimed.add(next.get().getId());
+                }
+                return claimed;
+            };
+            results.add(technicians.submit(drain));
+        }
+        List<Long> claimed = new ArrayList<>();
+        for (Future<List<Long>> result : results) {
+            claimed.addAll(result.get());
+        }
+        technicians.shutdown();
+
+        assertEquals(ordered.size(), claimed.size());
+        assertEquals(ordered, new HashSet<>(claimed));
+    }
+
+    @Test
+    void testsClaimedElsewhereAreSkipped() {
+        fixture.doctor(Department.NEUROLOGY, "Dr. Nerve");
+        Visit visit = fixture.visit("LAB-STALE", Department.NEUROLOGY);
+        LabTest taken = labService.orderTest(visit.getId(), "EEG", new BigDecimal("250.00"), true);
+        LabTest free = labService.orderTest(visit.getId(), "MRI", new BigDecimal("900.00"), true);
+
+        // Another instance claims the first test; this instance's worklist never hears about it
+        transactionTemplate.executeWithoutResult(status ->
+                labTestRepository.claimIfOrdered(taken.getId(), "remote-tech", LocalDateTime.now()));
+
+        LabTest claimed = labService.claimNext("tech-1", Department.NEUROLOGY).orElseThrow();
+        assertEquals(free.getId(), claimed.getId());
+        assertTrue(labWorklist.snapshot(Department.NEUROLOGY).stream().noneMatch(t -> t.getId().equals(taken.getId())));
+    }
+}
@@ -0,0 +1,81 @@
+package com.meditracker.service;
+
+import com.meditracker.controller.dto.VisitSummaryDTO;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.enums.Department;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VisitHistoryQueryCountTest {
+
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private LabService labService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void historyQueryCountDoesNotGrowWithVisitCount() {
+        long fewVisits = historyStatementCount("QC-FEW", 2);
+        long manyVisits = historyStatementCount("QC-MANY", 25);
+
+        assertEquals(fewVisits, manyVisits, "history must be O(1) in queries");
+        assertTrue(manyVisits <= 4, "expected at most 4 statements but was " + manyVisits);
+    }
+
+    @Test
+    void liveSummaryIsOneStatement() {
+        registrationService.registerOrFetch("QC-ONE", "Query Count QC-ONE", null, null);
+        Visit visit = visitService.startVisit("QC-ONE", Department.CARDIOLOGY);
+        labService.orderTest(visit.getId(), "CBC", new BigDecimal("150.00"));
+        labService.orderTest(visit.getId(), "Lipid panel", new BigDecimal("300.00"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        VisitSummaryDTO summary = visitService.getVisitSummary(visit.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, summary.getLabTests().size());
+        assertEquals(3, summary.getBilling().getItems().size());
+        BigDecimal itemized = summary.getBilling().getItems().stream()
+                .map(VisitSummaryDTO.BillingItem::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, itemized.compareTo(summary.getBilling().getTotalDue()));
+    }
+
+    private long historyStatementCount(String rfidUid, int visits) {
+        registrationService.registerOrFetch(rfidUid, "Query Count " + rfidUid, null, null);
+        for (int i = 0; i < visits; i++) {
+            Visit visit = visitService.startVisit(rfidUid, Department.CARDIOLOGY);
+            labService.orderTest(visit.getId(), "CBC", new BigDecimal("150.00"));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<VisitSummaryDTO> history = visitService.getPatientVisitHistory(rfidUid);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(visits, history.size());
+        history.forEach(summary -> {
+            assertEquals(1, summary.getLabTests().size());
+            assertEquals(2, summary.getBilling().getItems().size());
+        });
+        return statements;
+    }
+}
@@ -0,0 +1,136 @@
+package com.meditracker.service;
+
+import com.meditracker.controller.dto.SettlementReceipt;
+import com.meditracker.controller.dto.VisitSummaryDTO;
+import com.meditracker.domain.Billing;
+import com.meditracker.domain.Money;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.WalletTransaction;
+import com.meditracker.domain.enums.BillingStatus;
+import com.meditracker.domain.enums.BillingType;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.VisitStatus;
+import com.meditracker.domain.enums.WalletTransactionType;
+import com.meditracker.fixture.ClinicFixture;
+import com.meditracker.repository.BillingRepository;
+import com.meditracker.repository.VisitRepository;
+import com.meditracker.repository.WalletTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VisitSettlementTest {
+
+    @Autowired
+    private ClinicFixture fixture;
+    @Autowired
+    private BillingService billingService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private BillingRepository billingRepository;
+    @Autowired
+    private VisitRepository visitRepository;
+    @Autowired
+    private WalletTransactionRepository walletTransactionRepository;
+
+    @Test
+    void paysEveryPendingBillOnceWithOneLedgerRowEach() {
+        Visit visit = fixture.visit("SETTLE-1", Department.CARDIOLOGY);
+        addBill(visit, "CBC", "100.00");
+        addBill(visit, "X-Ray", "50.00");
+        List<Long> billIds = billIds(visit);
+        Long walletId = walletService.getWalletByRfid("SETTLE-1").getId();
+
+        // Opening balance 1000.00, consultation 300.00
+        SettlementReceipt receipt = billingService.payVisitBills("SETTLE-1", visit.getId());
+
+        assertEquals(VisitStatus.COMPLETED, receipt.getVisitStatus());
+        assertEquals(billIds, receipt.getItemsPaid().stream().map(VisitSummaryDTO.BillingItem::getId).toList());
+        assertEquals(new BigDecimal("450.00"), receipt.getTotalPaid());
+        assertEquals(new BigDecimal("550.00"), receipt.getRemainingBalance());
+        assertTrue(billingRepository.findAllById(billIds).stream().allMatch(b -> b.getStatus() == BillingStatus.PAID));
+        assertEquals(VisitStatus.COMPLETED, visitRepository.findById(visit.getId()).orElseThrow().getStatus());
+
+        List<Long> debitedBills = debits(walletId).stream().map(t -> t.getBilling().getId()).sorted().toList();
+        assertEquals(billIds, debitedBills);
+        assertEquals(Money.of(new BigDecimal("550.00")), walletService.getWalletByRfid("SETTLE-1").getBalance());
+    }
+
+    @Test
+    void insufficientFundsRollsBackTheWholeSettlement() {
+        Visit visit = fixture.visit("SETTLE-2", Department.CARDIOLOGY);
+        addBill(visit, "MRI", "800.00");
+        Long walletId = walletService.getWalletByRfid("SETTLE-2").getId();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> billingService.payVisitBills("SETTLE-2", visit.getId()));
+
+        assertEquals("Insufficient wallet balance", e.getMessage());
+        assertTrue(billingRepository.findAllById(billIds(visit)).stream()
+                .allMatch(b -> b.getStatus() == BillingStatus.PENDING));
+        assertEquals(List.of(), debits(walletId));
+        assertNotEquals(VisitStatus.COMPLETED, visitRepository.findById(visit.getId()).orElseThrow().getStatus());
+        assertEquals(Money.of(new BigDecimal("1000.00")), walletService.getWalletByRfid("SETTLE-2").getBalance());
+    }
+
+    @Test
+    void rejectsAVisitOfAnotherPatient() {
+        Visit visit = fixture.visit("SETTLE-3", Department.CARDIOLOGY);
+        fixture.patient("SETTLE-3-OTHER");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> billingService.payVisitBills("SETTLE-3-OTHER", visit.getId()));
+
+        assertEquals("Visit does not belong to this patient", e.getMessage());
+        assertTrue(billingRepository.findAllById(billIds(visit)).stream()
+                .allMatch(b -> b.getStatus() == BillingStatus.PENDING));
+        assertEquals(Money.of(new BigDecimal("1000.00")),
+                walletService.getWalletByRfid("SETTLE-3-OTHER").getBalance());
+    }
+
+    @Test
+    void settlingASettledVisitReturnsAnEmptyReceipt() {
+        Visit visit = fixture.visit("SETTLE-4", Department.CARDIOLOGY);
+        Long walletId = walletService.getWalletByRfid("SETTLE-4").getId();
+        billingService.payVisitBills("SETTLE-4", visit.getId());
+
+        SettlementReceipt again = billingService.payVisitBills("SETTLE-4", visit.getId());
+
+        assertEquals(VisitStatus.COMPLETED, again.getVisitStatus());
+        assertEquals(List.of(), again.getItemsPaid());
+        assertEquals(0, again.getTotalPaid().signum());
+        assertEquals(new BigDecimal("700.00"), again.getRemainingBalance());
+        assertEquals(1, debits(walletId).size());
+    }
+
+    private void addBill(Visit visit, String item, String amount) {
+        Billing bill = new Billing();
+        bill.setVisit(visit);
+        bill.setType(BillingType.LAB_TEST);
+        bill.setItemDescription("Lab Test - " + item);
+        bill.setAmount(Money.of(new BigDecimal(amount)));
+        billingRepository.save(bill);
+    }
+
+    private List<Long> billIds(Visit visit) {
+        return billingRepository.findByVisit(visit).stream().map(Billing::getId).sorted().toList();
+    }
+
+    private List<WalletTransaction> debits(Long walletId) {
+        return walletTransactionRepository.findByWalletIdOrderByIdDesc(walletId).stream()
+                .filter(t -> t.getType() == WalletTransactionType.DEBIT)
+                .toList();
+    }
+}
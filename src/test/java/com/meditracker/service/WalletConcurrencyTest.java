@@ -0,0 +1,134 @@
+package com.meditracker.service;
+
+import com.meditracker.domain.Billing;
+import com.meditracker.domain.Money;
+import com.meditracker.domain.Visit;
+import com.meditracker.domain.Wallet;
+import com.meditracker.domain.enums.BillingStatus;
+import com.meditracker.domain.enums.BillingType;
+import com.meditracker.domain.enums.Department;
+import com.meditracker.domain.enums.WalletTransactionType;
+import com.meditracker.repository.BillingRepository;
+import com.meditracker.repository.WalletTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WalletConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private BillingService billingService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private BillingRepository billingRepository;
+    @Autowired
+    private WalletTransactionRepository walletTransactionRepository;
+
+    @Test
+    void concurrentPaymentsNeverLoseUpdatesOrOverdraw() throws Exception {
+        String rfid = "STRESS-MANY";
+        registrationService.registerOrFetch(rfid, "Stress Many", null, null);
+        Visit visit = visitService.startVisit(rfid, Department.CARDIOLOGY);
+        // Opening balance 1000.00 covers exactly 100 of these 150 bills
+        List<Long> billIds = createBills(visit, 150, new BigDecimal("10.00"));
+        Wallet wallet = walletService.getWalletByRfid(rfid);
+
+        Outcome outcome = runConcurrently(billIds.size(), i -> () -> billingService.payWithRfid(rfid, billIds.get(i)));
+
+        assertEquals(0, outcome.unexpected.get(), "unexpected failures");
+        assertEquals(100, outcome.succeeded.get());
+        assertEquals(50, outcome.insufficient.get());
+        assertEquals(Money.ZERO, walletService.getWalletByRfid(rfid).getBalance());
+        assertEquals(100, billingRepository.findAllById(billIds).stream()
+                .filter(b -> b.getStatus() == BillingStatus.PAID).count());
+        assertEquals(100, walletTransactionRepository.findByWalletIdOrderByIdDesc(wallet.getId()).stream()
+                .filter(t -> t.getType() == WalletTransactionType.DEBIT).count());
+    }
+
+    @Test
+    void concurrentTapsOnSameBillDebitOnce() throws Exception {
+        String rfid = "STRESS-SAME";
+        registrationService.registerOrFetch(rfid, "Stress Same", null, null);
+        Visit visit = visitService.startVisit(rfid, Department.CARDIOLOGY);
+        Long billId = createBills(visit, 1, new BigDecimal("25.00")).get(0);
+
+        Outcome outcome = runConcurrently(120, i -> () -> billingService.payWithRfid(rfid, billId));
+
+        assertEquals(0, outcome.unexpected.get(), "unexpected failures");
+        assertEquals(120, outcome.succeeded.get());
+        Wallet wallet = walletService.getWalletByRfid(rfid);
+        assertEquals(Money.of(new BigDecimal("975.00")), wallet.getBalance());
+        assertEquals(1, walletTransactionRepository.findByWalletIdOrderByIdDesc(wallet.getId()).stream()
+                .filter(t -> t.getType() == WalletTransactionType.DEBIT).count());
+    }
+
+    private List<Long> createBills(Visit visit, int count, BigDecimal amount) {
+        List<Billing> bills = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Billing bill = new Billing();
+            bill.setVisit(visit);
+            bill.setType(BillingType.LAB_TEST);
+            bill.setItemDescription("Stress item " + i);
+            bill.setAmount(Money.of(amount));
+            bills.add(bill);
+        }
+        return billingRepository.saveAll(bills).stream().map(Billing::getId).toList();
+    }
+
+    private Outcome runConcurrently(int tasks, IntFunction<Runnable> task) throws InterruptedException {
+        Outcome outcome = new Outcome();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < tasks; i++) {
+            Runnable payment = task.apply(i);
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    payment.run();
+                    outcome.succeeded.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    if ("Insufficient wallet balance".equals(e.getMessage())) {
+                        outcome.insufficient.incrementAndGet();
+                    } else {
+                        outcome.unexpected.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    outcome.unexpected.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES), "payments did not finish");
+        return outcome;
+    }
+
+    private static final class Outcome {
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger insufficient = new AtomicInteger();
+        private final AtomicInteger unexpected = new AtomicInteger();
+    }
+}